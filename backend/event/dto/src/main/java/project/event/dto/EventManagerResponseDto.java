@@ -6,7 +6,7 @@ public class EventManagerResponseDto extends GeneralUserResponseDto{
         super();
     }
 
-    public EventManagerResponseDto(String name, int generalUserId) {
+    public EventManagerResponseDto(String name, long generalUserId) {
         super(name, generalUserId);
     }
 
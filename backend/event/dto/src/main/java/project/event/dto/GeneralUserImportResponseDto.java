@@ -0,0 +1,31 @@
+package project.event.dto;
+
+public class GeneralUserImportResponseDto {
+
+    private int created;
+    private int duplicates;
+    private int invalid;
+
+    public GeneralUserImportResponseDto() {
+    }
+
+    public GeneralUserImportResponseDto(int created, int duplicates, int invalid) {
+        this.created = created;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+    }
+
+    // Getters
+    public int getCreated() {
+        return this.created;
+    }
+
+    public int getDuplicates() {
+        return this.duplicates;
+    }
+
+    public int getInvalid() {
+        return this.invalid;
+    }
+
+}
@@ -2,13 +2,13 @@ package project.event.dto;
 
 public class GeneralUserResponseDto {
 
-    private int generalUserId;
+    private long generalUserId;
     private String name;
 
     public GeneralUserResponseDto() {
     }
 
-    public GeneralUserResponseDto(String name, int generalUserId) {
+    public GeneralUserResponseDto(String name, long generalUserId) {
         this.name = name;
         this.generalUserId = generalUserId;
     }
@@ -18,7 +18,7 @@ public class GeneralUserResponseDto {
         return this.name;
     }
 
-    public int getGeneralUserId() {
+    public long getGeneralUserId() {
         return this.generalUserId;
     }
 }
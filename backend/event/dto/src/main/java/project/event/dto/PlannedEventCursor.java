@@ -0,0 +1,57 @@
+package project.event.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * The opaque cursor of a page of planned events, holding the (date, id) key of the last planned event of the page.
+ * The application and the read API both page with it, so a cursor from either one is understood by the other.
+ */
+public class PlannedEventCursor {
+
+    private final LocalDate date;
+    private final long plannedEventId;
+
+    public PlannedEventCursor(LocalDate date, long plannedEventId) {
+        this.date = date;
+        this.plannedEventId = plannedEventId;
+    }
+
+    /**
+     * Encode the key into the cursor sent to clients
+     * @return the cursor
+     */
+    public String encode() {
+        String key = date + ":" + plannedEventId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor sent by a client
+     * @param cursor the cursor
+     * @return the key held by the cursor
+     * @throws IllegalArgumentException if the cursor was not made by encode
+     */
+    public static PlannedEventCursor decode(String cursor) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (key.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PlannedEventCursor(LocalDate.parse(key[0]), Long.parseLong(key[1]));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Getters
+    public LocalDate getDate() {
+        return this.date;
+    }
+
+    public long getPlannedEventId() {
+        return this.plannedEventId;
+    }
+}
@@ -0,0 +1,27 @@
+package project.event.dto;
+
+import java.util.List;
+
+public class PlannedEventPageResponseDto {
+
+    private List<PlannedEventResponseDto> plannedEvents;
+    private String nextCursor;
+
+    public PlannedEventPageResponseDto() {
+    }
+
+    public PlannedEventPageResponseDto(List<PlannedEventResponseDto> plannedEvents, String nextCursor) {
+        this.plannedEvents = plannedEvents;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<PlannedEventResponseDto> getPlannedEvents() {
+        return this.plannedEvents;
+    }
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+
+}
@@ -9,6 +9,8 @@ public class PlannedEventRequestDto {
     private int year;
     private int month;
     private int day;
+    private Integer capacity;
+    private Long version;
 
     public PlannedEventRequestDto() {
     }
@@ -24,6 +26,18 @@ public class PlannedEventRequestDto {
         this.day = day;
     }
 
+    public PlannedEventRequestDto(EventManagerResponseDto eventManager, String eventName, String description,
+                                  String location, int year, int month, int day, Integer capacity) {
+        this(eventManager, eventName, description, location, year, month, day);
+        this.capacity = capacity;
+    }
+
+    public PlannedEventRequestDto(EventManagerResponseDto eventManager, String eventName, String description,
+                                  String location, int year, int month, int day, Integer capacity, Long version) {
+        this(eventManager, eventName, description, location, year, month, day, capacity);
+        this.version = version;
+    }
+
     // Getters
     public EventManagerResponseDto getEventManager() {
         return this.eventManager;
@@ -53,4 +67,18 @@ public class PlannedEventRequestDto {
         return this.day;
     }
 
+    /**
+     * @return the maximum number of registrations, or null for no limit
+     */
+    public Integer getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return the version of the planned event this update is based on, or null to update whatever is stored
+     */
+    public Long getVersion() {
+        return this.version;
+    }
+
 }
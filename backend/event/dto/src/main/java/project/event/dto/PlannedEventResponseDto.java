@@ -2,7 +2,7 @@ package project.event.dto;
 
 public class PlannedEventResponseDto {
 
-    private int eventId;
+    private long eventId;
     private EventManagerResponseDto eventManager;
     private String eventName;
     private String description;
@@ -10,12 +10,17 @@ public class PlannedEventResponseDto {
     private int year;
     private int month;
     private int day;
+    private Integer capacity;
+    private int seatsReserved;
+    private int waitlistCount;
+    private long version;
 
     public PlannedEventResponseDto() {
     }
 
-    public PlannedEventResponseDto(EventManagerResponseDto eventManager, String eventName,
-                                   String description, String location, int year, int month, int day, int eventId) {
+    public PlannedEventResponseDto(EventManagerResponseDto eventManager, String eventName, String description,
+                                   String location, int year, int month, int day, long eventId,
+                                   Integer capacity, int seatsReserved, int waitlistCount, long version) {
         this.eventManager = eventManager;
         this.eventName = eventName;
         this.description = description;
@@ -24,6 +29,10 @@ public class PlannedEventResponseDto {
         this.month = month;
         this.day = day;
         this.eventId = eventId;
+        this.capacity = capacity;
+        this.seatsReserved = seatsReserved;
+        this.waitlistCount = waitlistCount;
+        this.version = version;
     }
 
     // Getters
@@ -55,8 +64,30 @@ public class PlannedEventResponseDto {
         return this.day;
     }
 
-    public int getEventId() {
+    public long getEventId() {
         return this.eventId;
     }
 
+    /**
+     * @return the maximum number of registrations, or null for no limit
+     */
+    public Integer getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return the number of seats taken, which is also the number of registrations
+     */
+    public int getSeatsReserved() {
+        return this.seatsReserved;
+    }
+
+    public int getWaitlistCount() {
+        return this.waitlistCount;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
 }
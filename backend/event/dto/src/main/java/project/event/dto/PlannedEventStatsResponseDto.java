@@ -0,0 +1,49 @@
+package project.event.dto;
+
+public class PlannedEventStatsResponseDto {
+
+    private long eventId;
+    private Integer capacity;
+    private int registrationCount;
+    private Integer seatsLeft;
+    private int waitlistCount;
+
+    public PlannedEventStatsResponseDto() {
+    }
+
+    public PlannedEventStatsResponseDto(long eventId, Integer capacity, int registrationCount, int waitlistCount) {
+        this.eventId = eventId;
+        this.capacity = capacity;
+        this.registrationCount = registrationCount;
+        this.seatsLeft = capacity == null ? null : Math.max(0, capacity - registrationCount);
+        this.waitlistCount = waitlistCount;
+    }
+
+    // Getters
+    public long getEventId() {
+        return this.eventId;
+    }
+
+    /**
+     * @return the maximum number of registrations, or null for no limit
+     */
+    public Integer getCapacity() {
+        return this.capacity;
+    }
+
+    public int getRegistrationCount() {
+        return this.registrationCount;
+    }
+
+    /**
+     * @return the number of seats still free, or null for no limit
+     */
+    public Integer getSeatsLeft() {
+        return this.seatsLeft;
+    }
+
+    public int getWaitlistCount() {
+        return this.waitlistCount;
+    }
+
+}
@@ -0,0 +1,31 @@
+package project.event.dto;
+
+public class RegistrationBatchItemResponseDto {
+
+    private int status;
+    private RegistrationResponseDto registration;
+    private String error;
+
+    public RegistrationBatchItemResponseDto() {
+    }
+
+    public RegistrationBatchItemResponseDto(int status, RegistrationResponseDto registration, String error) {
+        this.status = status;
+        this.registration = registration;
+        this.error = error;
+    }
+
+    // Getters
+    public int getStatus() {
+        return this.status;
+    }
+
+    public RegistrationResponseDto getRegistration() {
+        return this.registration;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+}
@@ -2,7 +2,7 @@ package project.event.dto;
 
 public class RegistrationResponseDto {
 
-    private int registrationId;
+    private long registrationId;
     private PlannedEventResponseDto plannedEvent;
     private GeneralUserResponseDto generalUser;
 
@@ -10,7 +10,7 @@ public class RegistrationResponseDto {
     }
 
     public RegistrationResponseDto(PlannedEventResponseDto plannedEvent,
-                                   GeneralUserResponseDto generalUser, int registrationId) {
+                                   GeneralUserResponseDto generalUser, long registrationId) {
         this.plannedEvent = plannedEvent;
         this.generalUser = generalUser;
         this.registrationId = registrationId;
@@ -25,7 +25,7 @@ public class RegistrationResponseDto {
         return this.generalUser;
     }
 
-    public int getRegistrationId() {
+    public long getRegistrationId() {
         return this.registrationId;
     }
 
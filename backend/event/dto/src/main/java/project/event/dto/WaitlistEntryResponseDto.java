@@ -0,0 +1,41 @@
+package project.event.dto;
+
+public class WaitlistEntryResponseDto {
+
+    private long waitlistEntryId;
+    private long eventId;
+    private GeneralUserResponseDto generalUser;
+    private long position;
+
+    public WaitlistEntryResponseDto() {
+    }
+
+    public WaitlistEntryResponseDto(long eventId, GeneralUserResponseDto generalUser, long position,
+                                    long waitlistEntryId) {
+        this.eventId = eventId;
+        this.generalUser = generalUser;
+        this.position = position;
+        this.waitlistEntryId = waitlistEntryId;
+    }
+
+    // Getters
+    public long getEventId() {
+        return this.eventId;
+    }
+
+    public GeneralUserResponseDto getGeneralUser() {
+        return this.generalUser;
+    }
+
+    /**
+     * @return the position on the waitlist of the planned event, starting at 1
+     */
+    public long getPosition() {
+        return this.position;
+    }
+
+    public long getWaitlistEntryId() {
+        return this.waitlistEntryId;
+    }
+
+}
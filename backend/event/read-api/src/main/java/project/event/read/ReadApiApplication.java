@@ -0,0 +1,13 @@
+package project.event.read;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReadApiApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReadApiApplication.class, args);
+	}
+
+}
@@ -0,0 +1,34 @@
+package project.event.read.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import project.event.dto.EventManagerResponseDto;
+import project.event.read.dao.GeneralUserReadRepository;
+import project.event.read.exception.EventRegistrationAppException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin("*")
+@RestController
+public class EventManagerReadController {
+
+    @Autowired
+    private GeneralUserReadRepository generalUserReadRepository;
+
+    // Get mappings
+    @GetMapping(value = { "/eventManager/{id}", "/eventManager/{id}/" })
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<EventManagerResponseDto> getEventManagerById(@PathVariable("id") long id) {
+        return generalUserReadRepository.findEventManagerById(id)
+                .switchIfEmpty(Mono.error(new EventRegistrationAppException("Event manager not found", HttpStatus.NOT_FOUND)));
+    }
+
+    @GetMapping(value = { "/eventManager", "/eventManager/" },
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<EventManagerResponseDto> getAllEventManagers() {
+        return generalUserReadRepository.findAllEventManagers();
+    }
+}
@@ -0,0 +1,34 @@
+package project.event.read.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import project.event.dto.GeneralUserResponseDto;
+import project.event.read.dao.GeneralUserReadRepository;
+import project.event.read.exception.EventRegistrationAppException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin("*")
+@RestController
+public class GeneralUserReadController {
+
+    @Autowired
+    private GeneralUserReadRepository generalUserReadRepository;
+
+    // Get mappings
+    @GetMapping(value = { "/generalUser/{id}", "/generalUser/{id}/" })
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<GeneralUserResponseDto> getGeneralUserById(@PathVariable("id") long id) {
+        return generalUserReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(new EventRegistrationAppException("General user not found", HttpStatus.NOT_FOUND)));
+    }
+
+    @GetMapping(value = { "/generalUser", "/generalUser/" },
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<GeneralUserResponseDto> getAllGeneralUsers() {
+        return generalUserReadRepository.findAll();
+    }
+}
@@ -0,0 +1,124 @@
+package project.event.read.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import project.event.dto.PlannedEventCursor;
+import project.event.dto.PlannedEventPageResponseDto;
+import project.event.dto.PlannedEventResponseDto;
+import project.event.dto.PlannedEventStatsResponseDto;
+import project.event.read.dao.PlannedEventReadRepository;
+import project.event.read.exception.EventRegistrationAppException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin("*")
+@RestController
+public class PlannedEventReadController {
+
+    // Same limits as the application
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_UPCOMING_DAYS = 366;
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private PlannedEventReadRepository plannedEventReadRepository;
+
+    // Get mappings
+    @GetMapping(value = { "/plannedEvent/{id}", "/plannedEvent/{id}/" })
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<PlannedEventResponseDto> getPlannedEventById(@PathVariable("id") long id) {
+        return plannedEventReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND)));
+    }
+
+    @GetMapping(value = { "/plannedEvent/{id}/stats", "/plannedEvent/{id}/stats/" })
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<PlannedEventStatsResponseDto> getPlannedEventStats(@PathVariable("id") long id) {
+        return getPlannedEventById(id).map(plannedEvent -> new PlannedEventStatsResponseDto(
+                plannedEvent.getEventId(),
+                plannedEvent.getCapacity(),
+                plannedEvent.getSeatsReserved(),
+                plannedEvent.getWaitlistCount()
+        ));
+    }
+
+    // NOTE: Pages like the application, and its cursors can be used here and the other way around
+    @GetMapping(value = { "/plannedEvent", "/plannedEvent/" })
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<PlannedEventPageResponseDto> getPlannedEventsPage(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return getPage(from, to, cursor, limit);
+    }
+
+    @GetMapping(value = { "/plannedEvent/upcoming", "/plannedEvent/upcoming/" })
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<PlannedEventPageResponseDto> getUpcomingPlannedEvents(@RequestParam(value = "days", defaultValue = "28") int days,
+                                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (days < 1 || days > MAX_UPCOMING_DAYS) {
+            return Mono.error(new EventRegistrationAppException("Days must be between 1 and " + MAX_UPCOMING_DAYS,
+                    HttpStatus.BAD_REQUEST));
+        }
+        LocalDate today = LocalDate.now();
+        return getPage(today, today.plusDays(days - 1), cursor, limit);
+    }
+
+    // NOTE: Reads the whole table, so it has to be asked for explicitly; ask for application/x-ndjson to get each
+    // planned event as soon as it is read
+    @GetMapping(value = { "/plannedEvent", "/plannedEvent/" }, params = "all=true",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<PlannedEventResponseDto> getAllPlannedEvents() {
+        return plannedEventReadRepository.findBetween(MIN_DATE, MAX_DATE);
+    }
+
+    /**
+     * Helper method to read one page of the planned events taking place between two dates, checked like the application
+     */
+    private Mono<PlannedEventPageResponseDto> getPage(LocalDate from, LocalDate to, String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return Mono.error(new EventRegistrationAppException("Page size must be between 1 and " + MAX_PAGE_SIZE,
+                    HttpStatus.BAD_REQUEST));
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return Mono.error(new EventRegistrationAppException("Start date cannot be after end date", HttpStatus.BAD_REQUEST));
+        }
+        PlannedEventCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = PlannedEventCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Mono.error(new EventRegistrationAppException("Invalid cursor", HttpStatus.BAD_REQUEST));
+            }
+        }
+        // Fetching one extra row tells us whether there is a next page
+        return plannedEventReadRepository.findPageBetween(from == null ? MIN_DATE : from, to == null ? MAX_DATE : to,
+                        after, pageSize + 1)
+                .collectList()
+                .map(plannedEvents -> toPage(plannedEvents, pageSize));
+    }
+
+    /**
+     * Helper method to cut the extra row off a page, and make the cursor of the next page from its last planned event
+     */
+    private PlannedEventPageResponseDto toPage(List<PlannedEventResponseDto> plannedEvents, int pageSize) {
+        if (plannedEvents.size() <= pageSize) {
+            return new PlannedEventPageResponseDto(plannedEvents, null);
+        }
+        List<PlannedEventResponseDto> page = plannedEvents.subList(0, pageSize);
+        PlannedEventResponseDto last = page.get(pageSize - 1);
+        // Months start at 0 in the DTOs
+        LocalDate date = LocalDate.of(last.getYear(), last.getMonth() + 1, last.getDay());
+        return new PlannedEventPageResponseDto(page, new PlannedEventCursor(date, last.getEventId()).encode());
+    }
+}
@@ -0,0 +1,34 @@
+package project.event.read.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import project.event.dto.RegistrationResponseDto;
+import project.event.read.dao.RegistrationReadRepository;
+import project.event.read.exception.EventRegistrationAppException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin("*")
+@RestController
+public class RegistrationReadController {
+
+    @Autowired
+    private RegistrationReadRepository registrationReadRepository;
+
+    // Get mappings
+    @GetMapping(value = { "/registration/{id}", "/registration/{id}/" })
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<RegistrationResponseDto> getRegistrationById(@PathVariable("id") long id) {
+        return registrationReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(new EventRegistrationAppException("Registration not found", HttpStatus.NOT_FOUND)));
+    }
+
+    @GetMapping(value = { "/registration", "/registration/" },
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<RegistrationResponseDto> getAllRegistrations() {
+        return registrationReadRepository.findAll();
+    }
+}
@@ -0,0 +1,79 @@
+package project.event.read.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import project.event.dto.EventManagerResponseDto;
+import project.event.dto.GeneralUserResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads general users and event managers, which share one table told apart by user_type, straight into DTOs.
+ */
+@Repository
+public class GeneralUserReadRepository {
+
+    private static final String EVENT_MANAGER = "EventManager";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Find a general user, which may also be an event manager, by its id
+     * @param generalUserId the id of the general user
+     * @return the general user, or empty if there is none
+     */
+    public Mono<GeneralUserResponseDto> findById(long generalUserId) {
+        return databaseClient.sql("select general_user_id, name from general_user where general_user_id = :generalUserId")
+                .bind("generalUserId", generalUserId)
+                .map(row -> new GeneralUserResponseDto(
+                        row.get("name", String.class),
+                        row.get("general_user_id", Long.class)))
+                .one();
+    }
+
+    /**
+     * Find all general users, event managers included, ordered by id
+     * @return the general users, read as they are requested
+     */
+    public Flux<GeneralUserResponseDto> findAll() {
+        return databaseClient.sql("select general_user_id, name from general_user order by general_user_id")
+                .filter(statement -> statement.fetchSize(PlannedEventReadRepository.FETCH_SIZE))
+                .map(row -> new GeneralUserResponseDto(
+                        row.get("name", String.class),
+                        row.get("general_user_id", Long.class)))
+                .all();
+    }
+
+    /**
+     * Find an event manager by its id
+     * @param eventManagerId the id of the event manager
+     * @return the event manager, or empty if there is none
+     */
+    public Mono<EventManagerResponseDto> findEventManagerById(long eventManagerId) {
+        return databaseClient.sql("select general_user_id, name from general_user " +
+                        "where general_user_id = :eventManagerId and user_type = :userType")
+                .bind("eventManagerId", eventManagerId)
+                .bind("userType", EVENT_MANAGER)
+                .map(row -> new EventManagerResponseDto(
+                        row.get("name", String.class),
+                        row.get("general_user_id", Long.class)))
+                .one();
+    }
+
+    /**
+     * Find all event managers, ordered by id
+     * @return the event managers, read as they are requested
+     */
+    public Flux<EventManagerResponseDto> findAllEventManagers() {
+        return databaseClient.sql("select general_user_id, name from general_user where user_type = :userType " +
+                        "order by general_user_id")
+                .bind("userType", EVENT_MANAGER)
+                .filter(statement -> statement.fetchSize(PlannedEventReadRepository.FETCH_SIZE))
+                .map(row -> new EventManagerResponseDto(
+                        row.get("name", String.class),
+                        row.get("general_user_id", Long.class)))
+                .all();
+    }
+}
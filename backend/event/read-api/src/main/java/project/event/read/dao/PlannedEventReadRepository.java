@@ -0,0 +1,110 @@
+package project.event.read.dao;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import project.event.dto.EventManagerResponseDto;
+import project.event.dto.PlannedEventCursor;
+import project.event.dto.PlannedEventResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Reads planned events, along with their event manager, straight into DTOs from the tables of the application.
+ */
+@Repository
+public class PlannedEventReadRepository {
+
+    // Rows are pulled from the database as subscribers ask for them, this many at a time
+    static final int FETCH_SIZE = 500;
+
+    // The columns read by toDto, for queries joining the planned event as p and its event manager as m
+    static final String PLANNED_EVENT_COLUMNS = "p.planned_event_id, p.event_name, p.description, p.location, p.date, " +
+            "p.capacity, p.seats_reserved, p.waitlist_count, p.version, " +
+            "m.general_user_id as event_manager_id, m.name as event_manager_name";
+
+    private static final String SELECT = "select " + PLANNED_EVENT_COLUMNS + " from planned_event p " +
+            "join general_user m on m.general_user_id = p.event_manager_general_user_id ";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Find a planned event by its id
+     * @param plannedEventId the id of the planned event
+     * @return the planned event, or empty if there is none
+     */
+    public Mono<PlannedEventResponseDto> findById(long plannedEventId) {
+        return databaseClient.sql(SELECT + "where p.planned_event_id = :plannedEventId")
+                .bind("plannedEventId", plannedEventId)
+                .map(PlannedEventReadRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Find one page of the planned events taking place between two dates, ordered by date then id
+     * @param from the first date of the range (inclusive)
+     * @param to the last date of the range (inclusive)
+     * @param after the key of the last planned event of the previous page, or null for the first page
+     * @param limit the maximum number of planned events to read
+     * @return the planned events of the page
+     */
+    public Flux<PlannedEventResponseDto> findPageBetween(LocalDate from, LocalDate to, PlannedEventCursor after,
+                                                         int limit) {
+        // Same keyset condition as the application, so pages stay on the (date, planned_event_id) index
+        String keyset = after == null ? ""
+                : "and (p.date > :date or (p.date = :date and p.planned_event_id > :plannedEventId)) ";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SELECT + "where p.date >= :from and p.date <= :to " +
+                        keyset + "order by p.date, p.planned_event_id limit :limit")
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", limit);
+        if (after != null) {
+            spec = spec.bind("date", after.getDate()).bind("plannedEventId", after.getPlannedEventId());
+        }
+        return spec.map(PlannedEventReadRepository::toDto).all();
+    }
+
+    /**
+     * Find the planned events taking place between two dates, ordered by date then id
+     * @param from the first date of the range (inclusive)
+     * @param to the last date of the range (inclusive)
+     * @return the planned events, read as they are requested
+     */
+    public Flux<PlannedEventResponseDto> findBetween(LocalDate from, LocalDate to) {
+        return databaseClient.sql(SELECT + "where p.date >= :from and p.date <= :to order by p.date, p.planned_event_id")
+                .bind("from", from)
+                .bind("to", to)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(PlannedEventReadRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Helper method to read the planned event columns of a row into a DTO, whose months start at 0
+     */
+    static PlannedEventResponseDto toDto(Readable row) {
+        LocalDate date = row.get("date", LocalDate.class);
+        EventManagerResponseDto eventManagerResponseDto = new EventManagerResponseDto(
+                row.get("event_manager_name", String.class),
+                row.get("event_manager_id", Long.class)
+        );
+        return new PlannedEventResponseDto(
+                eventManagerResponseDto,
+                row.get("event_name", String.class),
+                row.get("description", String.class),
+                row.get("location", String.class),
+                date.getYear(),
+                date.getMonthValue() - 1,
+                date.getDayOfMonth(),
+                row.get("planned_event_id", Long.class),
+                row.get("capacity", Integer.class),
+                row.get("seats_reserved", Integer.class),
+                row.get("waitlist_count", Integer.class),
+                row.get("version", Long.class)
+        );
+    }
+}
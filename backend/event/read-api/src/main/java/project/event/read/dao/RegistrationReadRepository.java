@@ -0,0 +1,64 @@
+package project.event.read.dao;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import project.event.dto.GeneralUserResponseDto;
+import project.event.dto.RegistrationResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads registrations, along with their planned event and general user, straight into DTOs.
+ */
+@Repository
+public class RegistrationReadRepository {
+
+    private static final String SELECT = "select r.registration_id, u.general_user_id, u.name, " +
+            PlannedEventReadRepository.PLANNED_EVENT_COLUMNS + " from registration r " +
+            "join general_user u on u.general_user_id = r.general_user_id " +
+            "join planned_event p on p.planned_event_id = r.planned_event_id " +
+            "join general_user m on m.general_user_id = p.event_manager_general_user_id ";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Find a registration by its id
+     * @param registrationId the id of the registration
+     * @return the registration, or empty if there is none
+     */
+    public Mono<RegistrationResponseDto> findById(long registrationId) {
+        return databaseClient.sql(SELECT + "where r.registration_id = :registrationId")
+                .bind("registrationId", registrationId)
+                .map(RegistrationReadRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Find all registrations, ordered by id
+     * @return the registrations, read as they are requested
+     */
+    public Flux<RegistrationResponseDto> findAll() {
+        return databaseClient.sql(SELECT + "order by r.registration_id")
+                .filter(statement -> statement.fetchSize(PlannedEventReadRepository.FETCH_SIZE))
+                .map(RegistrationReadRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Helper method to read a row into a DTO
+     */
+    private static RegistrationResponseDto toDto(Readable row) {
+        GeneralUserResponseDto generalUserResponseDto = new GeneralUserResponseDto(
+                row.get("name", String.class),
+                row.get("general_user_id", Long.class)
+        );
+        return new RegistrationResponseDto(
+                PlannedEventReadRepository.toDto(row),
+                generalUserResponseDto,
+                row.get("registration_id", Long.class)
+        );
+    }
+}
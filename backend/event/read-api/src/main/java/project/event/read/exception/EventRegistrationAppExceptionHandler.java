@@ -0,0 +1,14 @@
+package project.event.read.exception;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+// Errors are answered the same way as by the application, with the message as the body
+@ControllerAdvice
+public class EventRegistrationAppExceptionHandler {
+    @ExceptionHandler(EventRegistrationAppException.class)
+    public ResponseEntity<String> handleEventRegistrationAppException(EventRegistrationAppException e) {
+        return new ResponseEntity<String>(e.getMessage(), e.getStatus());
+    }
+}
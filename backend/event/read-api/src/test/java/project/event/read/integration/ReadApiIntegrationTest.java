@@ -0,0 +1,294 @@
+package project.event.read.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import project.event.dto.EventManagerResponseDto;
+import project.event.dto.GeneralUserResponseDto;
+import project.event.dto.PlannedEventCursor;
+import project.event.dto.PlannedEventPageResponseDto;
+import project.event.dto.PlannedEventResponseDto;
+import project.event.dto.PlannedEventStatsResponseDto;
+import project.event.dto.RegistrationResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///readapi;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:schema.sql"
+})
+public class ReadApiIntegrationTest {
+
+    private static final long MANAGER_ID = 1;
+    private static final long USER_ID = 2;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void seed() {
+        execute("insert into general_user values (1, 'manager', 'EventManager')");
+        execute("insert into general_user values (2, 'user', 'GeneralUser')");
+        insertPlannedEvent(10, TODAY.plusDays(2), 5, 1);
+        insertPlannedEvent(11, TODAY, null, 0);
+        insertPlannedEvent(12, TODAY.plusDays(40), null, 0);
+        execute("insert into registration values (20, 0, 10, 2)");
+    }
+
+    @AfterEach
+    public void clearDatabase() {
+        execute("delete from registration");
+        execute("delete from planned_event");
+        execute("delete from general_user");
+    }
+
+    /**
+     * Helper method to run a statement against the database
+     */
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+
+    /**
+     * Helper method to insert a planned event of the event manager
+     */
+    private void insertPlannedEvent(long plannedEventId, LocalDate date, Integer capacity, int seatsReserved) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into planned_event values " +
+                        "(:id, 3, :managerId, :name, 'description', 'location', :date, :capacity, :seatsReserved, 2)")
+                .bind("id", plannedEventId)
+                .bind("managerId", MANAGER_ID)
+                .bind("name", "event" + plannedEventId)
+                .bind("date", date)
+                .bind("seatsReserved", seatsReserved);
+        insert = capacity == null ? insert.bindNull("capacity", Integer.class) : insert.bind("capacity", capacity);
+        insert.then().block();
+    }
+
+    @Test
+    public void testGetPlannedEventById() {
+        PlannedEventResponseDto plannedEvent = webTestClient.get().uri("/plannedEvent/10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PlannedEventResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(plannedEvent);
+        assertEquals(10, plannedEvent.getEventId());
+        assertEquals("event10", plannedEvent.getEventName());
+        assertEquals(TODAY.plusDays(2).getYear(), plannedEvent.getYear());
+        assertEquals(TODAY.plusDays(2).getMonthValue() - 1, plannedEvent.getMonth());
+        assertEquals(TODAY.plusDays(2).getDayOfMonth(), plannedEvent.getDay());
+        assertEquals(5, plannedEvent.getCapacity());
+        assertEquals(1, plannedEvent.getSeatsReserved());
+        assertEquals(2, plannedEvent.getWaitlistCount());
+        assertEquals(3, plannedEvent.getVersion());
+        assertEquals(MANAGER_ID, plannedEvent.getEventManager().getGeneralUserId());
+        assertEquals("manager", plannedEvent.getEventManager().getName());
+    }
+
+    @Test
+    public void testGetPlannedEventByIdNotFound() {
+        String message = webTestClient.get().uri("/plannedEvent/99")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_FOUND)
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("Planned event not found", message);
+    }
+
+    /**
+     * Helper method to get one page of planned events
+     */
+    private PlannedEventPageResponseDto getPage(String uri) {
+        PlannedEventPageResponseDto page = webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PlannedEventPageResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(page);
+        return page;
+    }
+
+    @Test
+    public void testGetAllPlannedEventsStreamed() {
+        Flux<PlannedEventResponseDto> plannedEvents = webTestClient.get().uri("/plannedEvent?all=true")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PlannedEventResponseDto.class)
+                .getResponseBody();
+
+        StepVerifier.create(plannedEvents.map(PlannedEventResponseDto::getEventId), 1)
+                .expectNext(11L)
+                .thenRequest(1)
+                .expectNext(10L)
+                .thenRequest(1)
+                .expectNext(12L)
+                .thenRequest(1)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGetPlannedEventsPaged() {
+        PlannedEventPageResponseDto first = getPage("/plannedEvent?limit=2");
+        PlannedEventPageResponseDto second = getPage("/plannedEvent?limit=2&cursor=" + first.getNextCursor());
+
+        assertEquals(List.of(11L, 10L), first.getPlannedEvents().stream().map(PlannedEventResponseDto::getEventId).toList());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of(12L), second.getPlannedEvents().stream().map(PlannedEventResponseDto::getEventId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testGetUpcomingPlannedEventsPaged() {
+        PlannedEventPageResponseDto first = getPage("/plannedEvent/upcoming?days=7&limit=1");
+        PlannedEventPageResponseDto second = getPage("/plannedEvent/upcoming?days=7&limit=1&cursor=" + first.getNextCursor());
+
+        assertEquals(List.of(11L), first.getPlannedEvents().stream().map(PlannedEventResponseDto::getEventId).toList());
+        assertEquals(List.of(10L), second.getPlannedEvents().stream().map(PlannedEventResponseDto::getEventId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testGetPlannedEventsApplicationCursor() {
+        // The application encodes its cursors with the same shared class
+        String cursor = new PlannedEventCursor(TODAY.plusDays(2), 10).encode();
+
+        PlannedEventPageResponseDto page = getPage("/plannedEvent?cursor=" + cursor);
+
+        assertEquals(List.of(12L), page.getPlannedEvents().stream().map(PlannedEventResponseDto::getEventId).toList());
+    }
+
+    @Test
+    public void testGetPlannedEventsSameShapeAsApplication() throws Exception {
+        String body = webTestClient.get().uri("/plannedEvent?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        // The application serializes the same shared DTOs, so its pages have these fields
+        PlannedEventResponseDto plannedEvent = getPage("/plannedEvent?limit=1").getPlannedEvents().get(0);
+        JsonNode expected = objectMapper.valueToTree(new PlannedEventPageResponseDto(List.of(plannedEvent), "cursor"));
+
+        JsonNode actual = objectMapper.readTree(body);
+        assertEquals(fieldNames(expected), fieldNames(actual));
+        assertEquals(fieldNames(expected.get("plannedEvents").get(0)), fieldNames(actual.get("plannedEvents").get(0)));
+        assertEquals(fieldNames(expected.get("plannedEvents").get(0).get("eventManager")),
+                fieldNames(actual.get("plannedEvents").get(0).get("eventManager")));
+    }
+
+    /**
+     * Helper method to list the field names of a JSON object
+     */
+    private Set<String> fieldNames(JsonNode node) {
+        Set<String> fieldNames = new TreeSet<>();
+        node.fieldNames().forEachRemaining(fieldNames::add);
+        return fieldNames;
+    }
+
+    @Test
+    public void testGetPlannedEventsInvalidPage() {
+        String limitMessage = webTestClient.get().uri("/plannedEvent?limit=101")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        String cursorMessage = webTestClient.get().uri("/plannedEvent?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("Page size must be between 1 and 100", limitMessage);
+        assertEquals("Invalid cursor", cursorMessage);
+    }
+
+    @Test
+    public void testGetPlannedEventsInvalidRange() {
+        String message = webTestClient.get().uri("/plannedEvent?from=2030-01-02&to=2030-01-01")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("Start date cannot be after end date", message);
+    }
+
+    @Test
+    public void testGetPlannedEventStats() {
+        PlannedEventStatsResponseDto stats = webTestClient.get().uri("/plannedEvent/10/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PlannedEventStatsResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(stats);
+        assertEquals(5, stats.getCapacity());
+        assertEquals(1, stats.getRegistrationCount());
+        assertEquals(4, stats.getSeatsLeft());
+        assertEquals(2, stats.getWaitlistCount());
+    }
+
+    @Test
+    public void testGetRegistrations() {
+        List<RegistrationResponseDto> registrations = webTestClient.get().uri("/registration")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RegistrationResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(registrations);
+        assertEquals(1, registrations.size());
+        assertEquals(20, registrations.get(0).getRegistrationId());
+        assertEquals(10, registrations.get(0).getPlannedEvent().getEventId());
+        assertEquals(USER_ID, registrations.get(0).getGeneralUser().getGeneralUserId());
+        assertEquals("user", registrations.get(0).getGeneralUser().getName());
+    }
+
+    @Test
+    public void testGetGeneralUsersAndEventManagers() {
+        List<GeneralUserResponseDto> generalUsers = webTestClient.get().uri("/generalUser")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(GeneralUserResponseDto.class)
+                .returnResult().getResponseBody();
+        List<EventManagerResponseDto> eventManagers = webTestClient.get().uri("/eventManager")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(EventManagerResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(generalUsers);
+        assertNotNull(eventManagers);
+        assertEquals(2, generalUsers.size());
+        assertEquals(1, eventManagers.size());
+        assertEquals(MANAGER_ID, eventManagers.get(0).getGeneralUserId());
+        webTestClient.get().uri("/eventManager/" + USER_ID)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,25 @@
+create table if not exists general_user (
+    general_user_id bigint primary key,
+    name varchar(255),
+    user_type varchar(31) not null
+);
+
+create table if not exists planned_event (
+    planned_event_id bigint primary key,
+    version bigint not null,
+    event_manager_general_user_id bigint not null references general_user (general_user_id),
+    event_name varchar(255),
+    description varchar(255),
+    location varchar(255),
+    date date,
+    capacity integer,
+    seats_reserved integer not null,
+    waitlist_count integer not null
+);
+
+create table if not exists registration (
+    registration_id bigint primary key,
+    version bigint not null,
+    planned_event_id bigint not null references planned_event (planned_event_id),
+    general_user_id bigint not null references general_user (general_user_id)
+);
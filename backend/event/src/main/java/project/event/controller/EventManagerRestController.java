@@ -21,7 +21,7 @@ public class EventManagerRestController {
     // Get mappings
     @GetMapping(value = { "/eventManager/{id}", "/eventManager/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public EventManagerResponseDto getEventManagerById(@PathVariable("id") int id) {
+    public EventManagerResponseDto getEventManagerById(@PathVariable("id") long id) {
         EventManager eventManager = eventManagerService.getEventManagerById(id);
         return convertToDto(eventManager);
     }
@@ -46,7 +46,7 @@ public class EventManagerRestController {
     // Put mapping
     @PutMapping(value = { "/eventManager/{id}", "/eventManager/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public EventManagerResponseDto updateEventManager(@PathVariable("id") int id,
+    public EventManagerResponseDto updateEventManager(@PathVariable("id") long id,
                                                     @RequestBody EventManagerRequestDto eventManagerResponseDto) {
         EventManager eventManager = eventManagerService.updateEventManager(
                 id,
@@ -58,7 +58,7 @@ public class EventManagerRestController {
     // Delete mapping
     @DeleteMapping(value = { "/eventManager/{id}", "/eventManager/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public void deleteEventManager(@PathVariable("id") int id) {
+    public void deleteEventManager(@PathVariable("id") long id) {
         eventManagerService.deleteEventManager(id);
     }
 
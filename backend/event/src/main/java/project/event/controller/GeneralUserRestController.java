@@ -1,14 +1,25 @@
 package project.event.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import project.event.dto.GeneralUserImportResponseDto;
 import project.event.dto.GeneralUserRequestDto;
 import project.event.dto.GeneralUserResponseDto;
 import project.event.exception.EventRegistrationAppException;
+import project.event.service.GeneralUserImportSummary;
 import project.event.service.GeneralUserService;
+import project.event.service.RateLimiter;
 import project.event.model.GeneralUser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @CrossOrigin("*")
@@ -18,10 +29,13 @@ public class GeneralUserRestController {
     @Autowired
     private GeneralUserService generalUserService;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
     // Get mappings
     @GetMapping(value = { "/generalUser/{id}", "/generalUser/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public GeneralUserResponseDto getGeneralUserById(@PathVariable("id") int id) {
+    public GeneralUserResponseDto getGeneralUserById(@PathVariable("id") long id) {
         GeneralUser generalUser = generalUserService.getGeneralUser(id);
         return convertToDto(generalUser);
     }
@@ -36,18 +50,42 @@ public class GeneralUserRestController {
     // Post mapping
     @PostMapping(value = { "/generalUser", "/generalUser/" })
     @ResponseStatus(HttpStatus.CREATED)
-    public GeneralUserResponseDto createGeneralUser(@RequestBody GeneralUserRequestDto generalUserResponseDto) {
+    public GeneralUserResponseDto createGeneralUser(@RequestBody GeneralUserRequestDto generalUserResponseDto,
+                                                    HttpServletRequest request) {
+        rateLimiter.acquire("generalUser.create", RateLimiter.address(request));
         GeneralUser generalUser = generalUserService.createGeneralUser(
                 generalUserResponseDto.getName()
         );
         return convertToDto(generalUser);
     }
 
+    @PostMapping(value = { "/generalUser/import", "/generalUser/import/" }, consumes = { "text/csv", "text/plain" })
+    @ResponseStatus(HttpStatus.OK)
+    public GeneralUserImportResponseDto importGeneralUsers(InputStream body, HttpServletRequest request)
+            throws IOException {
+        rateLimiter.acquire("generalUser.import", RateLimiter.address(request));
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return convertToDto(generalUserService.importGeneralUsers(reader));
+        }
+    }
+
+    @PostMapping(value = { "/generalUser/import", "/generalUser/import/" }, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public GeneralUserImportResponseDto importGeneralUsers(@RequestParam("file") MultipartFile file,
+                                                           HttpServletRequest request) throws IOException {
+        rateLimiter.acquire("generalUser.import", RateLimiter.address(request));
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return convertToDto(generalUserService.importGeneralUsers(reader));
+        }
+    }
+
     // Put mapping
     @PutMapping(value = { "/generalUser/{id}", "/generalUser/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public GeneralUserResponseDto updateGeneralUser(@PathVariable("id") int id,
-                                                    @RequestBody GeneralUserRequestDto generalUserResponseDto) {
+    public GeneralUserResponseDto updateGeneralUser(@PathVariable("id") long id,
+                                                    @RequestBody GeneralUserRequestDto generalUserResponseDto,
+                                                    HttpServletRequest request) {
+        rateLimiter.acquire("generalUser.update", RateLimiter.address(request));
         GeneralUser generalUser = generalUserService.updateGeneralUser(
                 id,
                 generalUserResponseDto.getName()
@@ -58,7 +96,8 @@ public class GeneralUserRestController {
     // Delete mapping
     @DeleteMapping(value = { "/generalUser/{id}", "/generalUser/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public void deleteGeneralUser(@PathVariable("id") int id) {
+    public void deleteGeneralUser(@PathVariable("id") long id, HttpServletRequest request) {
+        rateLimiter.acquire("generalUser.delete", RateLimiter.address(request));
         generalUserService.deleteGeneralUser(id);
     }
 
@@ -74,4 +113,15 @@ public class GeneralUserRestController {
                 generalUser.getGeneralUserId()
         );
     }
+
+    /**
+     * Helper method to convert GeneralUserImportSummary objects into DTOs
+     */
+    private GeneralUserImportResponseDto convertToDto(GeneralUserImportSummary summary) {
+        return new GeneralUserImportResponseDto(
+                summary.getCreated(),
+                summary.getDuplicates(),
+                summary.getInvalid()
+        );
+    }
 }
@@ -1,17 +1,26 @@
 package project.event.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import project.event.dto.EventManagerResponseDto;
+import project.event.dto.PlannedEventPageResponseDto;
 import project.event.dto.PlannedEventRequestDto;
 import project.event.dto.PlannedEventResponseDto;
+import project.event.dto.PlannedEventStatsResponseDto;
 import project.event.exception.EventRegistrationAppException;
 import project.event.model.PlannedEvent;
+import project.event.service.ConcurrencyLimiter;
+import project.event.service.ConflictRetry;
+import project.event.service.IdempotencyService;
+import project.event.service.PlannedEventCache;
+import project.event.service.PlannedEventConverter;
+import project.event.service.PlannedEventPage;
 import project.event.service.PlannedEventService;
 
-import java.util.Calendar;
-import java.util.GregorianCalendar;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.List;
 
 @CrossOrigin("*")
@@ -21,65 +30,113 @@ public class PlannedEventRestController {
     @Autowired
     private PlannedEventService plannedEventService;
 
+    @Autowired
+    private ConflictRetry conflictRetry;
+
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private PlannedEventCache plannedEventCache;
+
     // Get mappings
     @GetMapping(value = { "/plannedEvent/{id}", "/plannedEvent/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public PlannedEventResponseDto getPlannedEventById(@PathVariable("id") int id) {
-        PlannedEvent plannedEvent = plannedEventService.getPlannedEventById(id);
-        return convertToDto(plannedEvent);
+    public PlannedEventResponseDto getPlannedEventById(@PathVariable("id") long id) {
+        return plannedEventCache.get(id, key -> convertToDto(plannedEventService.getPlannedEventById(key)));
+    }
+
+    // NOTE: The counts are kept on the event row as registrations come and go, so this never counts registrations
+    @GetMapping(value = { "/plannedEvent/{id}/stats", "/plannedEvent/{id}/stats/" })
+    @ResponseStatus(HttpStatus.OK)
+    public PlannedEventStatsResponseDto getPlannedEventStats(@PathVariable("id") long id) {
+        PlannedEventResponseDto plannedEvent = getPlannedEventById(id);
+        return new PlannedEventStatsResponseDto(
+                plannedEvent.getEventId(),
+                plannedEvent.getCapacity(),
+                plannedEvent.getSeatsReserved(),
+                plannedEvent.getWaitlistCount()
+        );
     }
 
     @GetMapping(value = { "/plannedEvent", "/plannedEvent/" })
     @ResponseStatus(HttpStatus.OK)
+    public PlannedEventPageResponseDto getPlannedEventsPage(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        PlannedEventPage page = plannedEventService.getPlannedEventsPage(from, to, cursor, limit);
+        return convertToPageDto(page);
+    }
+
+    @GetMapping(value = { "/plannedEvent/upcoming", "/plannedEvent/upcoming/" })
+    @ResponseStatus(HttpStatus.OK)
+    public PlannedEventPageResponseDto getUpcomingPlannedEvents(@RequestParam(value = "days", defaultValue = "28") int days,
+                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        PlannedEventPage page = plannedEventService.getUpcomingPlannedEvents(days, cursor, limit);
+        return convertToPageDto(page);
+    }
+
+    // NOTE: Loads the whole table, so it has to be asked for explicitly
+    @GetMapping(value = { "/plannedEvent", "/plannedEvent/" }, params = "all=true")
+    @ResponseStatus(HttpStatus.OK)
     public List<PlannedEventResponseDto> getAllPlannedEvents() {
         List<PlannedEvent> plannedEvents = plannedEventService.getAllPlannedEvents();
         return plannedEvents.stream().map(this::convertToDto).toList();
     }
 
     // Post mapping
+    // NOTE: A retry with the same Idempotency-Key header gets the first response back instead of a second event
     @PostMapping(value = { "/plannedEvent", "/plannedEvent/" })
-    @ResponseStatus(HttpStatus.CREATED)
-    public PlannedEventResponseDto createPlannedEvent(@RequestBody PlannedEventRequestDto plannedEventResponseDto) {
-        GregorianCalendar date = new GregorianCalendar(
-                plannedEventResponseDto.getYear(),
-                plannedEventResponseDto.getMonth(),
-                plannedEventResponseDto.getDay()
-        );
-        PlannedEvent plannedEvent = plannedEventService.createPlannedEvent(
-                plannedEventResponseDto.getEventManager().getGeneralUserId(),
-                plannedEventResponseDto.getEventName(),
-                plannedEventResponseDto.getDescription(),
-                plannedEventResponseDto.getLocation(),
-                date
-        );
-        return convertToDto(plannedEvent);
+    public ResponseEntity<?> createPlannedEvent(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody PlannedEventRequestDto plannedEventResponseDto) {
+        return idempotencyService.execute("POST /plannedEvent", idempotencyKey, plannedEventResponseDto, () -> {
+            LocalDate date = convertToDate(plannedEventResponseDto);
+            PlannedEvent plannedEvent = concurrencyLimiter.execute("createPlannedEvent", () ->
+                    plannedEventService.createPlannedEvent(
+                            plannedEventResponseDto.getEventManager().getGeneralUserId(),
+                            plannedEventResponseDto.getEventName(),
+                            plannedEventResponseDto.getDescription(),
+                            plannedEventResponseDto.getLocation(),
+                            date,
+                            plannedEventResponseDto.getCapacity()
+                    ));
+            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(plannedEvent));
+        });
     }
 
     // Put mapping
     @PutMapping(value = { "/plannedEvent/{id}", "/plannedEvent/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public PlannedEventResponseDto updatePlannedEvent(@PathVariable("id") int id,
+    public PlannedEventResponseDto updatePlannedEvent(@PathVariable("id") long id,
                                                       @RequestBody PlannedEventRequestDto plannedEventResponseDto) {
-        GregorianCalendar date = new GregorianCalendar(
-                plannedEventResponseDto.getYear(),
-                plannedEventResponseDto.getMonth(),
-                plannedEventResponseDto.getDay()
-        );
-        PlannedEvent plannedEvent = plannedEventService.updatePlannedEvent(
-                id,
-                plannedEventResponseDto.getEventName(),
-                plannedEventResponseDto.getDescription(),
-                plannedEventResponseDto.getLocation(),
-                date
-        );
+        LocalDate date = convertToDate(plannedEventResponseDto);
+        // Retries run within the admitted write, so a conflict does not need to be admitted again
+        PlannedEvent plannedEvent = concurrencyLimiter.execute("updatePlannedEvent", () ->
+                conflictRetry.execute("updatePlannedEvent", () -> plannedEventService.updatePlannedEvent(
+                        id,
+                        plannedEventResponseDto.getEventName(),
+                        plannedEventResponseDto.getDescription(),
+                        plannedEventResponseDto.getLocation(),
+                        date,
+                        plannedEventResponseDto.getCapacity(),
+                        plannedEventResponseDto.getVersion()
+                )));
         return convertToDto(plannedEvent);
     }
 
     // Delete mapping
     @DeleteMapping(value = { "/plannedEvent/{id}", "/plannedEvent/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public void deletePlannedEvent(@PathVariable("id") int id) {
-        plannedEventService.deletePlannedEvent(id);
+    public void deletePlannedEvent(@PathVariable("id") long id) {
+        concurrencyLimiter.execute("deletePlannedEvent", () ->
+                conflictRetry.execute("deletePlannedEvent", () -> plannedEventService.deletePlannedEvent(id)));
     }
 
     /**
@@ -89,19 +146,31 @@ public class PlannedEventRestController {
         if (plannedEvent == null) {
             throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
         }
-        EventManagerResponseDto eventManagerResponseDto = new EventManagerResponseDto(
-                plannedEvent.getEventManager().getName(),
-                plannedEvent.getEventManager().getGeneralUserId()
-        );
-        return new PlannedEventResponseDto(
-                eventManagerResponseDto,
-                plannedEvent.getEventName(),
-                plannedEvent.getDescription(),
-                plannedEvent.getLocation(),
-                plannedEvent.getDate().get(Calendar.YEAR),
-                plannedEvent.getDate().get(Calendar.MONTH),
-                plannedEvent.getDate().get(Calendar.DAY_OF_MONTH),
-                plannedEvent.getPlannedEventId()
+        return PlannedEventConverter.toDto(plannedEvent);
+    }
+
+    /**
+     * Helper method to convert a page of PlannedEvent objects into a DTO
+     */
+    private PlannedEventPageResponseDto convertToPageDto(PlannedEventPage page) {
+        return new PlannedEventPageResponseDto(
+                page.getPlannedEvents().stream().map(this::convertToDto).toList(),
+                page.getNextCursor()
         );
     }
+
+    /**
+     * Helper method to get the date of a planned event from a request DTO, whose months start at 0
+     */
+    private LocalDate convertToDate(PlannedEventRequestDto plannedEventRequestDto) {
+        try {
+            return LocalDate.of(
+                    plannedEventRequestDto.getYear(),
+                    plannedEventRequestDto.getMonth() + 1,
+                    plannedEventRequestDto.getDay()
+            );
+        } catch (DateTimeException e) {
+            throw new EventRegistrationAppException("Invalid date", HttpStatus.BAD_REQUEST);
+        }
+    }
 }
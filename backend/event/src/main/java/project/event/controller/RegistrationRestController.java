@@ -1,15 +1,32 @@
 package project.event.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import project.event.dto.*;
 import project.event.exception.EventRegistrationAppException;
 import project.event.model.Registration;
+import project.event.model.WaitlistEntry;
+import project.event.service.ConcurrencyLimiter;
+import project.event.service.ConflictRetry;
+import project.event.service.IdempotencyService;
+import project.event.service.PlannedEventConverter;
+import project.event.service.RateLimiter;
+import project.event.service.RegistrationBatchResult;
+import project.event.service.RegistrationOutcome;
+import project.event.service.RegistrationQueue;
 import project.event.service.RegistrationService;
 
-import java.util.Calendar;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @CrossOrigin("*")
 @RestController
@@ -18,10 +35,28 @@ public class RegistrationRestController {
     @Autowired
     private RegistrationService registrationService;
 
+    @Autowired
+    private ConflictRetry conflictRetry;
+
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private RegistrationQueue registrationQueue;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Get mappings
     @GetMapping(value = { "/registration/{id}", "/registration/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public RegistrationResponseDto getRegistrationById(@PathVariable("id") int id) {
+    public RegistrationResponseDto getRegistrationById(@PathVariable("id") long id) {
         Registration registration = registrationService.getRegistrationById(id);
         return convertToDto(registration);
     }
@@ -33,24 +68,87 @@ public class RegistrationRestController {
         return registrations.stream().map(this::convertToDto).toList();
     }
 
+    @GetMapping(value = { "/registration/waitlist/{id}", "/registration/waitlist/{id}/" })
+    @ResponseStatus(HttpStatus.OK)
+    public WaitlistEntryResponseDto getWaitlistEntryById(@PathVariable("id") long id) {
+        WaitlistEntry waitlistEntry = registrationService.getWaitlistEntryById(id);
+        return convertToDto(waitlistEntry, registrationService.getWaitlistPosition(waitlistEntry));
+    }
+
+    @GetMapping(value = { "/registration/export", "/registration/export/" },
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRegistrations() {
+        // Each registration is written as one line of JSON while the rows are read
+        StreamingResponseBody body = outputStream -> registrationService.exportAllRegistrations(registration -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(convertToDto(registration)));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Post mapping
+    // NOTE: Answers 201 with the registration, or 202 with the waitlist entry when the event is full
+    // A retry with the same Idempotency-Key header gets the first response back
+    // In ticket drop mode the registration is queued and the response is sent once the batch holding it is applied
     @PostMapping(value = { "/registration", "/registration/" })
-    @ResponseStatus(HttpStatus.CREATED)
-    public RegistrationResponseDto createRegistration(@RequestBody RegistrationRequestDto registrationRequestDto) {
-        Registration registration = registrationService.createRegistration(
-                registrationRequestDto.getPlannedEvent().getEventId(),
-                registrationRequestDto.getGeneralUser().getGeneralUserId()
-        );
-        return convertToDto(registration);
+    public CompletableFuture<ResponseEntity<?>> createRegistration(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody RegistrationRequestDto registrationRequestDto, HttpServletRequest request) {
+        rateLimiter.acquire("registration.create", RateLimiter.address(request));
+        return idempotencyService.executeAsync("POST /registration", idempotencyKey, registrationRequestDto, () -> {
+            long plannedEventId = registrationRequestDto.getPlannedEvent().getEventId();
+            long generalUserId = registrationRequestDto.getGeneralUser().getGeneralUserId();
+            CompletableFuture<RegistrationOutcome> outcome = registrationQueue.isEnabled()
+                    ? registrationQueue.submit(plannedEventId, generalUserId)
+                    : CompletableFuture.completedFuture(concurrencyLimiter.execute("createRegistration", () ->
+                            registrationService.createRegistrationOrJoinWaitlist(plannedEventId, generalUserId)));
+            return outcome.thenApply(this::convertToResponse);
+        });
+    }
+
+    @PostMapping(value = { "/registration/batch", "/registration/batch/" })
+    @ResponseStatus(HttpStatus.OK)
+    public List<RegistrationBatchItemResponseDto> createRegistrations(
+            @RequestBody List<RegistrationRequestDto> registrationRequestDtos, HttpServletRequest request) {
+        rateLimiter.acquire("registration.batch", RateLimiter.address(request));
+        List<Long> plannedEventIds = new ArrayList<>();
+        List<Long> generalUserIds = new ArrayList<>();
+        for (RegistrationRequestDto registrationRequestDto : registrationRequestDtos) {
+            plannedEventIds.add(registrationRequestDto.getPlannedEvent() == null ? null :
+                    registrationRequestDto.getPlannedEvent().getEventId());
+            generalUserIds.add(registrationRequestDto.getGeneralUser() == null ? null :
+                    registrationRequestDto.getGeneralUser().getGeneralUserId());
+        }
+        // A batch takes longer the more registrations it holds, which is no sign of the database falling behind
+        List<RegistrationBatchResult> results = concurrencyLimiter.execute("createRegistrations",
+                registrationRequestDtos.size(), () -> registrationService.createRegistrations(plannedEventIds,
+                        generalUserIds));
+        return results.stream().map(result -> new RegistrationBatchItemResponseDto(
+                result.getStatus().value(),
+                result.getRegistration() == null ? null : convertToDto(result.getRegistration()),
+                result.getError()
+        )).toList();
     }
 
     // Delete mapping
     @DeleteMapping(value = { "/registration/{id}", "/registration/{id}/" })
     @ResponseStatus(HttpStatus.OK)
-    public void deleteRegistration(@PathVariable("id") int id) {
-        registrationService.deleteRegistration(id);
+    public void deleteRegistration(@PathVariable("id") long id, HttpServletRequest request) {
+        rateLimiter.acquire("registration.delete", RateLimiter.address(request));
+        concurrencyLimiter.execute("deleteRegistration", () ->
+                conflictRetry.execute("deleteRegistration", () -> registrationService.deleteRegistration(id)));
     }
 
+    @DeleteMapping(value = { "/registration/waitlist/{id}", "/registration/waitlist/{id}/" })
+    @ResponseStatus(HttpStatus.OK)
+    public void deleteWaitlistEntry(@PathVariable("id") long id, HttpServletRequest request) {
+        rateLimiter.acquire("registration.delete", RateLimiter.address(request));
+        concurrencyLimiter.execute("deleteWaitlistEntry", () -> registrationService.deleteWaitlistEntry(id));
+    }
 
 
     /**
@@ -64,24 +162,38 @@ public class RegistrationRestController {
                 registration.getGeneralUser().getName(),
                 registration.getGeneralUser().getGeneralUserId()
         );
-        EventManagerResponseDto eventManagerResponseDto = new EventManagerResponseDto(
-                registration.getPlannedEvent().getEventManager().getName(),
-                registration.getPlannedEvent().getEventManager().getGeneralUserId()
-        );
-        PlannedEventResponseDto plannedEventResponseDto = new PlannedEventResponseDto(
-                eventManagerResponseDto,
-                registration.getPlannedEvent().getEventName(),
-                registration.getPlannedEvent().getDescription(),
-                registration.getPlannedEvent().getLocation(),
-                registration.getPlannedEvent().getDate().get(Calendar.YEAR),
-                registration.getPlannedEvent().getDate().get(Calendar.MONTH),
-                registration.getPlannedEvent().getDate().get(Calendar.DAY_OF_MONTH),
-                registration.getPlannedEvent().getPlannedEventId()
-        );
+        PlannedEventResponseDto plannedEventResponseDto = PlannedEventConverter.toDto(registration.getPlannedEvent());
         return new RegistrationResponseDto(
                 plannedEventResponseDto,
                 generalUserResponseDto,
                 registration.getRegistrationId()
         );
     }
+
+    /**
+     * Helper method to answer with the registration created, or the waitlist entry created if the event is full
+     */
+    private ResponseEntity<?> convertToResponse(RegistrationOutcome outcome) {
+        if (outcome.getRegistration() != null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(outcome.getRegistration()));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(convertToDto(outcome.getWaitlistEntry(), outcome.getPosition()));
+    }
+
+    /**
+     * Helper method to convert WaitlistEntry objects into DTOs
+     */
+    private WaitlistEntryResponseDto convertToDto(WaitlistEntry waitlistEntry, long position) {
+        GeneralUserResponseDto generalUserResponseDto = new GeneralUserResponseDto(
+                waitlistEntry.getGeneralUser().getName(),
+                waitlistEntry.getGeneralUser().getGeneralUserId()
+        );
+        return new WaitlistEntryResponseDto(
+                waitlistEntry.getPlannedEvent().getPlannedEventId(),
+                generalUserResponseDto,
+                position,
+                waitlistEntry.getWaitlistEntryId()
+        );
+    }
 }
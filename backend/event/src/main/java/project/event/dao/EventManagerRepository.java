@@ -1,11 +1,13 @@
 package project.event.dao;
 
-import org.springframework.data.repository.CrudRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import project.event.model.EventManager;
 
-import java.util.List;
-
-public interface EventManagerRepository extends CrudRepository<EventManager, Integer>{
-    EventManager findEventManagerByGeneralUserId(int eventManagerId);
-    List<EventManager> findAll();
+public interface EventManagerRepository extends JpaRepository<EventManager, Long>{
+    // Like in GeneralUserRepository, the list of all event managers is not cached
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    EventManager findEventManagerByGeneralUserId(long eventManagerId);
 }
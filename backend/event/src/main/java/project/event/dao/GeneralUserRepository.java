@@ -1,11 +1,26 @@
 package project.event.dao;
 
-import org.springframework.data.repository.CrudRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import project.event.model.GeneralUser;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Set;
 
-public interface GeneralUserRepository extends CrudRepository<GeneralUser, Integer> {
-    GeneralUser findGeneralUserByGeneralUserId(int generalUserId);
-    List<GeneralUser> findAll();
+public interface GeneralUserRepository extends JpaRepository<GeneralUser, Long> {
+    // Cached query results are dropped by Hibernate whenever the general user table is written
+    // Only lookups returning one row are cached, a cached list of the whole table could hold millions of ids that
+    // would each be loaded on their own once the entities are evicted
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    GeneralUser findGeneralUserByGeneralUserId(long generalUserId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsByName(String name);
+
+    @Query("select u.name from GeneralUser u where u.name in :names")
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
 }
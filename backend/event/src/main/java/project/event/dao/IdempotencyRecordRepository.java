@@ -0,0 +1,19 @@
+package project.event.dao;
+
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import project.event.model.IdempotencyRecord;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends CrudRepository<IdempotencyRecord, String> {
+    public IdempotencyRecord findIdempotencyRecordByIdempotencyKey(String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :createdBefore")
+    public int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
@@ -1,11 +1,87 @@
 package project.event.dao;
 
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import project.event.model.PlannedEvent;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface PlannedEventRepository extends CrudRepository<PlannedEvent, Integer>{
-    public PlannedEvent findPlannedEventByPlannedEventId(int plannedEventId);
+public interface PlannedEventRepository extends CrudRepository<PlannedEvent, Long>{
+    // Planned events are always read with their manager, so fetch it in the same join
+    @EntityGraph(attributePaths = "eventManager")
+    public PlannedEvent findPlannedEventByPlannedEventId(long plannedEventId);
+
+    @EntityGraph(attributePaths = "eventManager")
     public List<PlannedEvent> findAll();
+
+    @EntityGraph(attributePaths = "eventManager")
+    public List<PlannedEvent> findByPlannedEventIdIn(Collection<Long> plannedEventIds);
+
+    @EntityGraph(attributePaths = "eventManager")
+    @Query("select p from PlannedEvent p order by p.date, p.plannedEventId")
+    public List<PlannedEvent> findFirstPage(Limit limit);
+
+    @EntityGraph(attributePaths = "eventManager")
+    @Query("select p from PlannedEvent p where p.date > :date or (p.date = :date and p.plannedEventId > :plannedEventId) " +
+            "order by p.date, p.plannedEventId")
+    public List<PlannedEvent> findPageAfter(@Param("date") LocalDate date,
+                                            @Param("plannedEventId") long plannedEventId, Limit limit);
+
+    // Range queries stay on the (date, plannedEventId) index, the upper bound only cuts the scan short
+    @EntityGraph(attributePaths = "eventManager")
+    @Query("select p from PlannedEvent p where p.date >= :from and p.date <= :to order by p.date, p.plannedEventId")
+    public List<PlannedEvent> findFirstPageBetween(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @EntityGraph(attributePaths = "eventManager")
+    @Query("select p from PlannedEvent p where (p.date > :date or (p.date = :date and p.plannedEventId > :plannedEventId)) " +
+            "and p.date >= :from and p.date <= :to order by p.date, p.plannedEventId")
+    public List<PlannedEvent> findPageBetweenAfter(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                   @Param("date") LocalDate date,
+                                                   @Param("plannedEventId") long plannedEventId, Limit limit);
+
+    // Seats are counted with conditional updates on the event row, so concurrent registrations can never overbook:
+    // the row lock serializes them and each one re-checks the capacity before incrementing
+    @Transactional
+    @Modifying
+    @Query("update PlannedEvent p set p.seatsReserved = p.seatsReserved + :seats where p.plannedEventId = :plannedEventId " +
+            "and (p.capacity is null or p.seatsReserved + :seats <= p.capacity)")
+    public int reserveSeats(@Param("plannedEventId") long plannedEventId, @Param("seats") int seats);
+
+    // Locks the event row, so the seats left stay free until the seats are reserved in the same transaction
+    @Query(value = "select capacity - seats_reserved from planned_event where planned_event_id = :plannedEventId for update",
+            nativeQuery = true)
+    public Integer findSeatsLeftForUpdate(@Param("plannedEventId") long plannedEventId);
+
+    @Transactional
+    @Modifying
+    @Query("update PlannedEvent p set p.seatsReserved = p.seatsReserved - :seats where p.plannedEventId = :plannedEventId " +
+            "and p.seatsReserved >= :seats")
+    public int releaseSeats(@Param("plannedEventId") long plannedEventId, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying
+    @Query("update PlannedEvent p set p.waitlistCount = p.waitlistCount + :entries where p.plannedEventId = :plannedEventId " +
+            "and p.waitlistCount + :entries >= 0")
+    public int addWaitlistEntries(@Param("plannedEventId") long plannedEventId, @Param("entries") int entries);
+
+    // Entries promoted from the head of the waitlist leave their tickets behind, so the dequeued counter moves past them
+    @Transactional
+    @Modifying
+    @Query("update PlannedEvent p set p.waitlistCount = p.waitlistCount - :entries, " +
+            "p.waitlistDequeued = p.waitlistDequeued + :entries where p.plannedEventId = :plannedEventId " +
+            "and p.waitlistCount >= :entries")
+    public int dequeueWaitlistEntries(@Param("plannedEventId") long plannedEventId, @Param("entries") int entries);
+
+    @Transactional
+    @Modifying
+    @Query("update PlannedEvent p set p.capacity = :capacity where p.plannedEventId = :plannedEventId " +
+            "and (:capacity is null or p.seatsReserved <= :capacity)")
+    public int updateCapacity(@Param("plannedEventId") long plannedEventId, @Param("capacity") Integer capacity);
 }
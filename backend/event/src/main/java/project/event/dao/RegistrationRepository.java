@@ -1,11 +1,39 @@
 package project.event.dao;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import project.event.model.Registration;
-import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface RegistrationRepository extends CrudRepository<Registration, Integer>{
-    public Registration findRegistrationByRegistrationId(int registrationId);
+public interface RegistrationRepository extends JpaRepository<Registration, Long> {
+    // Registrations are always read with their planned event, its manager and the user, so fetch them in one join
+    @EntityGraph(attributePaths = { "plannedEvent", "plannedEvent.eventManager", "generalUser" })
+    public Registration findRegistrationByRegistrationId(long registrationId);
+
+    @EntityGraph(attributePaths = { "plannedEvent", "plannedEvent.eventManager", "generalUser" })
     public List<Registration> findAll();
+
+    @Query("select r from Registration r join fetch r.plannedEvent p join fetch p.eventManager join fetch r.generalUser")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    public Stream<Registration> streamAll();
+
+    public boolean existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(long plannedEventId, long generalUserId);
+
+    // Returns the existing registrations among every combination of the given ids, which is a superset of the pairs
+    @Query("select r from Registration r where r.plannedEvent.plannedEventId in :plannedEventIds " +
+            "and r.generalUser.generalUserId in :generalUserIds")
+    public List<Registration> findByPlannedEventIdsAndGeneralUserIds(
+            @Param("plannedEventIds") Collection<Long> plannedEventIds,
+            @Param("generalUserIds") Collection<Long> generalUserIds);
 }
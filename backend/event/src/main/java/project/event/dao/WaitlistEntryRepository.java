@@ -0,0 +1,36 @@
+package project.event.dao;
+
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import project.event.model.WaitlistEntry;
+
+import java.util.List;
+
+public interface WaitlistEntryRepository extends CrudRepository<WaitlistEntry, Long> {
+    @EntityGraph(attributePaths = { "plannedEvent", "plannedEvent.eventManager", "generalUser" })
+    public WaitlistEntry findWaitlistEntryByWaitlistEntryId(long waitlistEntryId);
+
+    public boolean existsByPlannedEventPlannedEventId(long plannedEventId);
+
+    public boolean existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(long plannedEventId, long generalUserId);
+
+    // Callers have already written the planned event row, whose lock keeps anyone else from changing the queue
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from WaitlistEntry w where w.plannedEvent.plannedEventId = :plannedEventId order by w.ticket")
+    public List<WaitlistEntry> findHeadForUpdate(@Param("plannedEventId") long plannedEventId, Limit limit);
+
+    // Closes the gap left by an entry leaving the middle of the queue, so the tickets stay contiguous
+    // Touches every entry behind the one leaving, which is the price of reading positions without counting
+    @Transactional
+    @Modifying
+    @Query("update WaitlistEntry w set w.ticket = w.ticket - 1 where w.plannedEvent.plannedEventId = :plannedEventId " +
+            "and w.ticket > :ticket")
+    public int moveUpBehind(@Param("plannedEventId") long plannedEventId, @Param("ticket") long ticket);
+}
@@ -1,5 +1,8 @@
 package project.event.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,4 +14,19 @@ public class EventRegistrationAppExceptionHandler extends ResponseEntityExceptio
     public ResponseEntity<String> handleEventRegistrationAppException(EventRegistrationAppException e) {
         return new ResponseEntity<String>(e.getMessage(), e.getStatus());
     }
+
+    // Rejected clients are told how long to wait, in whole seconds
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceededException(RateLimitExceededException e) {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(e.getMessage());
+    }
+
+    // Writes that are not retried still report a lost optimistic locking race as a conflict
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return new ResponseEntity<String>("The resource was modified concurrently, please try again", HttpStatus.CONFLICT);
+    }
 }
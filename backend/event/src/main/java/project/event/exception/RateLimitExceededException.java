@@ -0,0 +1,22 @@
+package project.event.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+import java.time.Duration;
+
+public class RateLimitExceededException extends EventRegistrationAppException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("Too many requests, please try again later", HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfter = retryAfter;
+    }
+
+    // Getter
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
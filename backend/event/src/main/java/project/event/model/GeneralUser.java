@@ -1,14 +1,24 @@
 package project.event.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// General users and event managers share one table, so resolving a user by id or name is a single index probe
 @Entity
-@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "user_type")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_general_user_name", columnNames = "name"))
+// Users are read with nearly every planned event and registration, so they are kept in the second-level cache,
+// which event managers share since they live in the same table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class GeneralUser {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    private int generalUserId;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "general_user_seq")
+    @SequenceGenerator(name = "general_user_seq", sequenceName = "general_user_seq", allocationSize = 50)
+    private long generalUserId;
 
     private String name;
 
@@ -20,7 +30,7 @@ public class GeneralUser {
     }
 
     // Getters
-    public int getGeneralUserId() {
+    public long getGeneralUserId() {
         return this.generalUserId;
     }
 
@@ -31,7 +41,7 @@ public class GeneralUser {
     // Setters
 
     // NOTE: This setter is ONLY for testing purposes
-    public boolean setGeneralUserId(int generalUserId) {
+    public boolean setGeneralUserId(long generalUserId) {
         this.generalUserId = generalUserId;
         return true;
     }
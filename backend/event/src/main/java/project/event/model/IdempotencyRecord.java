@@ -0,0 +1,53 @@
+package project.event.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "createdAt"))
+public class IdempotencyRecord {
+
+    // The operation and the client's key, e.g. "POST /registration 5f0c..."
+    @Id
+    @Column(length = 512)
+    private String idempotencyKey;
+
+    private String requestFingerprint;
+    private int status;
+    private byte[] body;
+    private Instant createdAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String idempotencyKey, String requestFingerprint, int status, byte[] body,
+                             Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestFingerprint = requestFingerprint;
+        this.status = status;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
+    public String getRequestFingerprint() {
+        return this.requestFingerprint;
+    }
+
+    public int getStatus() {
+        return this.status;
+    }
+
+    public byte[] getBody() {
+        return this.body;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+}
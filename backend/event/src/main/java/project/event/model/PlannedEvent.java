@@ -4,14 +4,20 @@ import jakarta.persistence.*;
 import org.springframework.http.HttpStatus;
 import project.event.exception.EventRegistrationAppException;
 
-import java.util.GregorianCalendar;
+import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_planned_event_date", columnList = "date, plannedEventId"))
 public class PlannedEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    private int plannedEventId;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "planned_event_seq")
+    @SequenceGenerator(name = "planned_event_seq", sequenceName = "planned_event_seq", allocationSize = 50)
+    private long plannedEventId;
+
+    // Concurrent edits of the same planned event are detected when the second one is flushed
+    @Version
+    private long version;
 
     @ManyToOne
     private EventManager eventManager;
@@ -19,13 +25,30 @@ public class PlannedEvent {
     private String eventName;
     private String description;
     private String location;
-    private GregorianCalendar date;
+    private LocalDate date;
+
+    // A null capacity means the event takes any number of registrations
+    // These columns are only written through the atomic updates of PlannedEventRepository
+    @Column(updatable = false)
+    private Integer capacity;
+
+    // Every registration holds one seat, so this is also the number of registrations
+    @Column(nullable = false, updatable = false)
+    private int seatsReserved;
+
+    @Column(nullable = false, updatable = false)
+    private int waitlistCount;
+
+    // Waitlist entries promoted so far. Waiting entries hold the tickets that follow, one each with no gaps
+    // (waitlistDequeued + 1 to waitlistDequeued + waitlistCount), so a position is its ticket minus this
+    @Column(nullable = false, updatable = false)
+    private long waitlistDequeued;
 
     public PlannedEvent() {
     }
 
     public PlannedEvent(EventManager eventManager, String eventName, String description,
-                        String location, GregorianCalendar date) {
+                        String location, LocalDate date) {
         if (!setEventManager(eventManager)) {
             throw new RuntimeException("Invalid event manager");
         }
@@ -35,11 +58,21 @@ public class PlannedEvent {
         this.date = date;
     }
 
+    public PlannedEvent(EventManager eventManager, String eventName, String description,
+                        String location, LocalDate date, Integer capacity) {
+        this(eventManager, eventName, description, location, date);
+        this.capacity = capacity;
+    }
+
     // Getters
-    public int getPlannedEventId() {
+    public long getPlannedEventId() {
         return this.plannedEventId;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
     public EventManager getEventManager() {
         return this.eventManager;
     }
@@ -56,14 +89,30 @@ public class PlannedEvent {
         return this.location;
     }
 
-    public GregorianCalendar getDate() {
+    public LocalDate getDate() {
         return this.date;
     }
 
+    public Integer getCapacity() {
+        return this.capacity;
+    }
+
+    public int getSeatsReserved() {
+        return this.seatsReserved;
+    }
+
+    public int getWaitlistCount() {
+        return this.waitlistCount;
+    }
+
+    public long getWaitlistDequeued() {
+        return this.waitlistDequeued;
+    }
+
     // Setters
 
     // NOTE: This setter is ONLY for testing purposes
-    public boolean setPlannedEventId(int plannedEventId) {
+    public boolean setPlannedEventId(long plannedEventId) {
         this.plannedEventId = plannedEventId;
         return true;
     }
@@ -91,11 +140,32 @@ public class PlannedEvent {
         return true;
     }
 
-    public boolean setDate(GregorianCalendar date) {
+    public boolean setDate(LocalDate date) {
         if (date == null) {
             return false;
         }
         this.date = date;
         return true;
     }
+
+    // NOTE: These setters only change the loaded object, the database is updated by PlannedEventRepository
+    public boolean setCapacity(Integer capacity) {
+        this.capacity = capacity;
+        return true;
+    }
+
+    public boolean setSeatsReserved(int seatsReserved) {
+        this.seatsReserved = seatsReserved;
+        return true;
+    }
+
+    public boolean setWaitlistCount(int waitlistCount) {
+        this.waitlistCount = waitlistCount;
+        return true;
+    }
+
+    public boolean setWaitlistDequeued(long waitlistDequeued) {
+        this.waitlistDequeued = waitlistDequeued;
+        return true;
+    }
 }
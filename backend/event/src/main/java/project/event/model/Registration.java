@@ -3,16 +3,28 @@ package project.event.model;
 import jakarta.persistence.*;
 
 @Entity
+@Table(
+        // The unique index also serves every lookup by planned event, since planned_event_id is its first column
+        uniqueConstraints = @UniqueConstraint(name = "uk_registration_event_user",
+                columnNames = { "planned_event_id", "general_user_id" }),
+        indexes = @Index(name = "idx_registration_general_user", columnList = "general_user_id")
+)
 public class Registration {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    private int registrationId;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registration_seq")
+    @SequenceGenerator(name = "registration_seq", sequenceName = "registration_seq", allocationSize = 50)
+    private long registrationId;
 
-    @OneToOne
+    @Version
+    private long version;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "planned_event_id")
     private PlannedEvent plannedEvent;
 
-    @OneToOne
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "general_user_id")
     private GeneralUser generalUser;
 
     public Registration() {
@@ -28,10 +40,14 @@ public class Registration {
     }
 
     // Getters
-    public int getRegistrationId() {
+    public long getRegistrationId() {
         return this.registrationId;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
     public PlannedEvent getPlannedEvent() {
         return this.plannedEvent;
     }
@@ -43,7 +59,7 @@ public class Registration {
     // Setters
 
     // NOTE: This setter is ONLY for testing purposes
-    public boolean setRegistrationId(int registrationId) {
+    public boolean setRegistrationId(long registrationId) {
         this.registrationId = registrationId;
         return true;
     }
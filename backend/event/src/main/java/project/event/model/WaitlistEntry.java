@@ -0,0 +1,90 @@
+package project.event.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(
+        // Entries are always read in queue order within one planned event, so the index doubles as the queue
+        indexes = @Index(name = "idx_waitlist_entry_queue", columnList = "planned_event_id, ticket"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_waitlist_entry_user",
+                columnNames = { "planned_event_id", "general_user_id" })
+)
+public class WaitlistEntry {
+
+    // The order of the queue is given by the ticket, the id only identifies the entry
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entry_seq")
+    @SequenceGenerator(name = "waitlist_entry_seq", sequenceName = "waitlist_entry_seq", allocationSize = 50)
+    private long waitlistEntryId;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "planned_event_id")
+    private PlannedEvent plannedEvent;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "general_user_id")
+    private GeneralUser generalUser;
+
+    // Place in the queue of the planned event, see PlannedEvent.waitlistDequeued
+    // Only written on creation and through the atomic updates of WaitlistEntryRepository
+    @Column(nullable = false, updatable = false)
+    private long ticket;
+
+    public WaitlistEntry() {
+    }
+
+    public WaitlistEntry(PlannedEvent plannedEvent, GeneralUser generalUser) {
+        if (!setPlannedEvent(plannedEvent)) {
+            throw new RuntimeException("Invalid planned event");
+        }
+        if (!setGeneralUser(generalUser)) {
+            throw new RuntimeException("Invalid general user");
+        }
+    }
+
+    public WaitlistEntry(PlannedEvent plannedEvent, GeneralUser generalUser, long ticket) {
+        this(plannedEvent, generalUser);
+        this.ticket = ticket;
+    }
+
+    // Getters
+    public long getWaitlistEntryId() {
+        return this.waitlistEntryId;
+    }
+
+    public PlannedEvent getPlannedEvent() {
+        return this.plannedEvent;
+    }
+
+    public GeneralUser getGeneralUser() {
+        return this.generalUser;
+    }
+
+    public long getTicket() {
+        return this.ticket;
+    }
+
+    // Setters
+
+    // NOTE: This setter is ONLY for testing purposes
+    public boolean setWaitlistEntryId(long waitlistEntryId) {
+        this.waitlistEntryId = waitlistEntryId;
+        return true;
+    }
+
+    public boolean setPlannedEvent(PlannedEvent plannedEvent) {
+        if (plannedEvent == null) {
+            return false;
+        }
+        this.plannedEvent = plannedEvent;
+        return true;
+    }
+
+    public boolean setGeneralUser(GeneralUser generalUser) {
+        if (generalUser == null) {
+            return false;
+        }
+        this.generalUser = generalUser;
+        return true;
+    }
+}
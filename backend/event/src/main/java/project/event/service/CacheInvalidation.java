@@ -0,0 +1,162 @@
+package project.event.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The cached data one instance tells the others to drop, sent as the payload of a Postgres notification.
+ * The payload is the origin followed by the planned event ids ("p=1,2" or "p=*" for all of them) and the general
+ * user ids ("u=3,4", or "u=" when general users were only added), e.g. "2f1c...;p=1,2;u=".
+ */
+public class CacheInvalidation {
+
+    private final String origin;
+    private final Set<Long> plannedEventIds;
+    private final boolean allPlannedEvents;
+    private final Set<Long> generalUserIds;
+    private final boolean generalUsersChanged;
+
+    public CacheInvalidation(String origin, Set<Long> plannedEventIds, boolean allPlannedEvents,
+                             Set<Long> generalUserIds, boolean generalUsersChanged) {
+        this.origin = origin;
+        this.plannedEventIds = plannedEventIds;
+        this.allPlannedEvents = allPlannedEvents;
+        this.generalUserIds = generalUserIds;
+        this.generalUsersChanged = generalUsersChanged || !generalUserIds.isEmpty();
+    }
+
+    /**
+     * Read a cache invalidation from the payload of a notification
+     * @param payload the payload
+     * @return the cache invalidation
+     * @throws IllegalArgumentException if the payload is not a cache invalidation
+     */
+    public static CacheInvalidation parse(String payload) {
+        String[] parts = payload.split(";", -1);
+        Set<Long> plannedEventIds = new LinkedHashSet<>();
+        boolean allPlannedEvents = false;
+        Set<Long> generalUserIds = new LinkedHashSet<>();
+        boolean generalUsersChanged = false;
+        for (int i = 1; i < parts.length; i++) {
+            if (parts[i].equals("p=*")) {
+                allPlannedEvents = true;
+            } else if (parts[i].startsWith("p=")) {
+                plannedEventIds.addAll(parseIds(parts[i].substring(2)));
+            } else if (parts[i].startsWith("u=")) {
+                generalUsersChanged = true;
+                generalUserIds.addAll(parseIds(parts[i].substring(2)));
+            } else {
+                throw new IllegalArgumentException("Invalid cache invalidation: " + payload);
+            }
+        }
+        return new CacheInvalidation(parts[0], plannedEventIds, allPlannedEvents, generalUserIds, generalUsersChanged);
+    }
+
+    /**
+     * @return the payload of the notification sending this cache invalidation
+     */
+    public String toPayload() {
+        StringBuilder payload = new StringBuilder(origin);
+        if (allPlannedEvents) {
+            payload.append(";p=*");
+        } else if (!plannedEventIds.isEmpty()) {
+            payload.append(";p=").append(joinIds(plannedEventIds));
+        }
+        if (generalUsersChanged) {
+            payload.append(";u=").append(joinIds(generalUserIds));
+        }
+        return payload.toString();
+    }
+
+    /**
+     * Split this cache invalidation into ones naming at most the given number of ids each, so each fits a notification
+     * @param maxIds the maximum number of ids in each part
+     * @return the parts, in order
+     */
+    public List<CacheInvalidation> split(int maxIds) {
+        List<CacheInvalidation> parts = new ArrayList<>();
+        List<Long> plannedEventIds = new ArrayList<>(allPlannedEvents ? Set.of() : this.plannedEventIds);
+        List<Long> generalUserIds = new ArrayList<>(this.generalUserIds);
+        // The first part carries the flags, and the ids follow in as many parts as they need
+        int plannedEventIndex = 0;
+        int generalUserIndex = 0;
+        do {
+            int plannedEventEnd = Math.min(plannedEventIds.size(), plannedEventIndex + maxIds);
+            int generalUserEnd = Math.min(generalUserIds.size(),
+                    generalUserIndex + maxIds - (plannedEventEnd - plannedEventIndex));
+            parts.add(new CacheInvalidation(origin,
+                    new LinkedHashSet<>(plannedEventIds.subList(plannedEventIndex, plannedEventEnd)),
+                    parts.isEmpty() && allPlannedEvents,
+                    new LinkedHashSet<>(generalUserIds.subList(generalUserIndex, generalUserEnd)),
+                    parts.isEmpty() && generalUsersChanged));
+            plannedEventIndex = plannedEventEnd;
+            generalUserIndex = generalUserEnd;
+        } while (plannedEventIndex < plannedEventIds.size() || generalUserIndex < generalUserIds.size());
+        return parts;
+    }
+
+    /**
+     * @return true if nothing has to be dropped
+     */
+    public boolean isEmpty() {
+        return !allPlannedEvents && plannedEventIds.isEmpty() && !generalUsersChanged;
+    }
+
+    // Getters
+    public String getOrigin() {
+        return this.origin;
+    }
+
+    public Set<Long> getPlannedEventIds() {
+        return this.plannedEventIds;
+    }
+
+    public boolean isAllPlannedEvents() {
+        return this.allPlannedEvents;
+    }
+
+    public Set<Long> getGeneralUserIds() {
+        return this.generalUserIds;
+    }
+
+    /**
+     * @return true if general users were added, changed or deleted, which changes the results of queries on them
+     */
+    public boolean isGeneralUsersChanged() {
+        return this.generalUsersChanged;
+    }
+
+    /**
+     * Helper method to read a comma separated list of ids
+     */
+    private static List<Long> parseIds(String ids) {
+        List<Long> parsed = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return parsed;
+        }
+        for (String id : ids.split(",")) {
+            try {
+                parsed.add(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid id in cache invalidation: " + id);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Helper method to write ids as a comma separated list
+     */
+    private static String joinIds(Set<Long> ids) {
+        StringBuilder joined = new StringBuilder();
+        for (Long id : ids) {
+            if (!joined.isEmpty()) {
+                joined.append(',');
+            }
+            joined.append(id);
+        }
+        return joined.toString();
+    }
+}
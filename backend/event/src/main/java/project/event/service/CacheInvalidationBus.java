@@ -0,0 +1,284 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import project.event.model.GeneralUser;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the caches of several instances sharing one database in step, through Postgres LISTEN/NOTIFY.
+ * Changes committed on this instance are collected and sent as one notification (or a few, for many ids) per flush
+ * interval, and every instance listens on a connection of its own and drops what the other instances changed from
+ * its planned event cache and second-level cache.
+ * Registrations are not cached themselves; their changes reach other instances as changes of their planned event.
+ */
+@Component
+@ConditionalOnProperty(name = "event.cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationBus {
+
+    // Payloads must stay under 8000 bytes, which leaves room for a few hundred ids in each notification
+    private static final int MAX_IDS_PER_NOTIFICATION = 300;
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private PlannedEventCache plannedEventCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${event.cache.invalidation.channel:event_cache_invalidation}")
+    private String channel;
+
+    @Value("${event.cache.invalidation.flush-interval:100ms}")
+    private Duration flushInterval;
+
+    @Value("${event.cache.invalidation.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+
+    // Notifications come back to the instance sending them, which skips them since its caches are already up to date
+    private final String origin = UUID.randomUUID().toString();
+
+    // Changes committed since the last flush, collected on request threads, which may be virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private Set<Long> plannedEventIds = new LinkedHashSet<>();
+    private boolean allPlannedEvents;
+    private Set<Long> generalUserIds = new LinkedHashSet<>();
+    private boolean generalUsersChanged;
+
+    private ScheduledExecutorService notifier;
+    private Thread listener;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid cache invalidation channel: " + channel);
+        }
+        running = true;
+        notifier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        notifier.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        notifier.shutdown();
+        notifier.awaitTermination(5, TimeUnit.SECONDS);
+        // Changes committed since the last flush are still sent
+        flush();
+        listener.join(POLL_TIMEOUT_MILLIS * 2L);
+    }
+
+    /**
+     * Collect a change to planned events, once the transaction making it commits
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlannedEventChanged(PlannedEventChangedEvent event) {
+        lock.lock();
+        try {
+            if (event.getPlannedEventId() == null) {
+                allPlannedEvents = true;
+            } else {
+                plannedEventIds.add(event.getPlannedEventId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Collect a change to general users, once the transaction making it commits
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeneralUserChanged(GeneralUserChangedEvent event) {
+        lock.lock();
+        try {
+            generalUsersChanged = true;
+            if (event.getGeneralUserId() != null) {
+                generalUserIds.add(event.getGeneralUserId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Send the changes collected since the last flush to the other instances
+     */
+    public void flush() {
+        CacheInvalidation invalidation = takeChanges();
+        if (invalidation.isEmpty()) {
+            return;
+        }
+        try {
+            for (CacheInvalidation part : invalidation.split(MAX_IDS_PER_NOTIFICATION)) {
+                jdbcTemplate.queryForList("select pg_notify(?, ?)", channel, part.toPayload());
+                meterRegistry.counter("event.cache.invalidation.sent").increment();
+            }
+        } catch (DataAccessException e) {
+            // Sent again with the next flush; dropping the same entries twice does no harm
+            meterRegistry.counter("event.cache.invalidation.failures", "operation", "send").increment();
+            putBack(invalidation);
+        }
+    }
+
+    /**
+     * Drop what another instance changed from the caches of this instance
+     * @param payload the payload of the notification
+     */
+    public void receive(String payload) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = CacheInvalidation.parse(payload);
+        } catch (IllegalArgumentException e) {
+            meterRegistry.counter("event.cache.invalidation.failures", "operation", "receive").increment();
+            return;
+        }
+        if (invalidation.getOrigin().equals(origin)) {
+            return;
+        }
+        meterRegistry.counter("event.cache.invalidation.received").increment();
+        if (invalidation.isAllPlannedEvents()) {
+            plannedEventCache.evict(null);
+        } else {
+            invalidation.getPlannedEventIds().forEach(plannedEventCache::evict);
+        }
+        if (invalidation.isGeneralUsersChanged()) {
+            invalidation.getGeneralUserIds().forEach(id -> entityManagerFactory.getCache().evict(GeneralUser.class, id));
+            // Cached query results are only checked against the writes of this instance, so they are all dropped
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+    }
+
+    /**
+     * @return the id this instance sends its notifications with
+     */
+    public String getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * Helper method to take the changes collected since the last flush
+     */
+    private CacheInvalidation takeChanges() {
+        lock.lock();
+        try {
+            CacheInvalidation invalidation = new CacheInvalidation(origin, plannedEventIds, allPlannedEvents,
+                    generalUserIds, generalUsersChanged);
+            plannedEventIds = new LinkedHashSet<>();
+            allPlannedEvents = false;
+            generalUserIds = new LinkedHashSet<>();
+            generalUsersChanged = false;
+            return invalidation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to collect the changes of a flush that could not be sent again
+     */
+    private void putBack(CacheInvalidation invalidation) {
+        lock.lock();
+        try {
+            plannedEventIds.addAll(invalidation.getPlannedEventIds());
+            allPlannedEvents |= invalidation.isAllPlannedEvents();
+            generalUserIds.addAll(invalidation.getGeneralUserIds());
+            generalUsersChanged |= invalidation.isGeneralUsersChanged();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to listen for the notifications of the other instances until stopped, reconnecting on failures
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // Notifications sent while this instance was not listening are lost, so anything cached may be stale
+                evictAll();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Anything that ends the loop, such as an eviction failing, would leave this instance deaf for good,
+                // so it reconnects instead, which drops everything that might have been missed
+                meterRegistry.counter("event.cache.invalidation.failures", "operation", "listen").increment();
+                sleep(reconnectDelay);
+            }
+        }
+    }
+
+    /**
+     * Helper method to drop everything this instance caches
+     */
+    private void evictAll() {
+        plannedEventCache.evict(null);
+        entityManagerFactory.getCache().evict(GeneralUser.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import project.event.exception.EventRegistrationAppException;
+import project.event.model.PlannedEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Loads the planned events of the next days, and their event managers, into the caches before the application
+ * takes traffic, so the first requests after a deploy do not all miss.
+ * Runners complete before the readiness state changes to accepting traffic, so the readiness probe waits for this.
+ * Each day is listed in parallel and the listed planned events go straight into PlannedEventCache, then their event
+ * managers are loaded in parallel batches through the same lookup as GET /eventManager/{id}.
+ */
+@Component
+public class CacheWarmUp implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmUp.class);
+
+    @Autowired
+    private PlannedEventService plannedEventService;
+
+    @Autowired
+    private EventManagerService eventManagerService;
+
+    @Autowired
+    private PlannedEventCache plannedEventCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${event.cache.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${event.cache.warm-up.days:7}")
+    private int days;
+
+    @Value("${event.cache.warm-up.parallelism:4}")
+    private int parallelism;
+
+    @Value("${event.cache.warm-up.batch-size:100}")
+    private int batchSize;
+
+    // The application starts taking traffic after this even if the caches are not full yet
+    @Value("${event.cache.warm-up.timeout:2m}")
+    private Duration timeout;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled || days < 1) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        AtomicInteger plannedEvents = new AtomicInteger();
+        AtomicInteger eventManagers = new AtomicInteger();
+        String outcome = "completed";
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Callable<List<PlannedEvent>>> listings = new ArrayList<>();
+            LocalDate today = LocalDate.now();
+            for (int day = 0; day < days; day++) {
+                LocalDate date = today.plusDays(day);
+                listings.add(() -> listDay(date));
+            }
+            Set<Long> eventManagerIds = new LinkedHashSet<>();
+            for (List<PlannedEvent> listing : invokeAll(executor, listings, deadline)) {
+                for (PlannedEvent plannedEvent : listing) {
+                    // Listed with their event managers, so they are cached as read instead of being read again
+                    plannedEventCache.putIfAbsent(PlannedEventConverter.toDto(plannedEvent));
+                    plannedEvents.incrementAndGet();
+                    eventManagerIds.add(plannedEvent.getEventManager().getGeneralUserId());
+                }
+            }
+
+            invokeAll(executor, batches(eventManagerIds, eventManagerId -> {
+                eventManagerService.getEventManagerById(eventManagerId);
+                eventManagers.incrementAndGet();
+            }), deadline);
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+        } catch (ExecutionException e) {
+            outcome = "failed";
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("event.cache.warm-up")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("event.cache.warm-up.entries", "cache", "plannedEvent").increment(plannedEvents.get());
+        meterRegistry.counter("event.cache.warm-up.entries", "cache", "eventManager").increment(eventManagers.get());
+        logger.info("Cache warm-up {} in {} ms: {} planned events and {} event managers over the next {} days",
+                outcome, TimeUnit.NANOSECONDS.toMillis(elapsed), plannedEvents.get(), eventManagers.get(), days);
+    }
+
+    /**
+     * Helper method to list the planned events of one day, page by page
+     */
+    private List<PlannedEvent> listDay(LocalDate date) {
+        List<PlannedEvent> plannedEvents = new ArrayList<>();
+        String cursor = null;
+        do {
+            PlannedEventPage page = plannedEventService.getPlannedEventsPage(date, date, cursor,
+                    PlannedEventService.MAX_PAGE_SIZE);
+            plannedEvents.addAll(page.getPlannedEvents());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return plannedEvents;
+    }
+
+    /**
+     * Helper method to split ids into tasks loading at most one batch of them each
+     */
+    private List<Callable<List<PlannedEvent>>> batches(Set<Long> ids, LongConsumer load) {
+        List<Callable<List<PlannedEvent>>> batches = new ArrayList<>();
+        List<Long> remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            List<Long> batch = remaining.subList(from, Math.min(remaining.size(), from + batchSize));
+            batches.add(() -> {
+                for (long id : batch) {
+                    try {
+                        load.accept(id);
+                    } catch (EventRegistrationAppException e) {
+                        // Deleted since its planned event was listed
+                    }
+                }
+                return List.of();
+            });
+        }
+        return batches;
+    }
+
+    /**
+     * Helper method to run tasks in parallel and collect their results, giving up at the deadline
+     */
+    private <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks, long deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        }
+        return results;
+    }
+}
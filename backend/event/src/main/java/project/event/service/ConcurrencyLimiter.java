@@ -0,0 +1,163 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import project.event.exception.EventRegistrationAppException;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Turns writes away as soon as more are running than the database keeps up with, instead of letting them queue for
+ * request threads and connections until every write is slow.
+ * The limit follows AIMD: it grows by about one for every limit's worth of writes finishing within the target latency
+ * while the limit is being used, and is multiplied by the backoff ratio when a write takes longer.
+ * Only writes that complete adjust the limit, since a write that fails fast says nothing about the database.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${event.concurrency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${event.concurrency.initial-limit:10}")
+    private int initialLimit;
+
+    @Value("${event.concurrency.min-limit:2}")
+    private int minLimit;
+
+    @Value("${event.concurrency.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${event.concurrency.target-latency:250ms}")
+    private Duration targetLatency;
+
+    @Value("${event.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    // Every write goes through this lock, and a virtual thread blocked on a monitor would pin its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private double limit;
+    private int inFlight;
+    // Writes started before the last cut saw the load that caused it, so they do not cut the limit again
+    private long cutAt;
+
+    @PostConstruct
+    public void start() {
+        limit = initialLimit;
+        cutAt = System.nanoTime();
+        meterRegistry.gauge("event.concurrency.limit", this, ConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("event.concurrency.in-flight", this, ConcurrencyLimiter::getInFlight);
+    }
+
+    /**
+     * Run a write if fewer writes than the limit are running, otherwise turn it away
+     * @param operation the name of the write, used to tag the metrics
+     * @param write the write to run
+     * @return the result of the write
+     * @throws EventRegistrationAppException with 503 if too many writes are running
+     */
+    public <T> T execute(String operation, Supplier<T> write) {
+        return execute(operation, 1, write);
+    }
+
+    /**
+     * Run a write of many items if fewer writes than the limit are running, otherwise turn it away
+     * NOTE: The write holds a single slot, and is allowed the target latency once per item before it cuts the limit
+     * @param operation the name of the write, used to tag the metrics
+     * @param items the number of items written, at least 1
+     * @param write the write to run
+     * @return the result of the write
+     * @throws EventRegistrationAppException with 503 if too many writes are running
+     */
+    public <T> T execute(String operation, int items, Supplier<T> write) {
+        if (!enabled) {
+            return write.get();
+        }
+        if (!tryAcquire()) {
+            meterRegistry.counter("event.concurrency.rejected", "operation", operation).increment();
+            throw new EventRegistrationAppException("The server is busy, please try again", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            T result = write.get();
+            completed = true;
+            return result;
+        } finally {
+            release(start, System.nanoTime(), Math.max(1, items), completed);
+        }
+    }
+
+    /**
+     * @return the number of writes currently allowed to run at once
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) this.limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of writes running
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return this.inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to count a write in if the limit allows it
+     */
+    private boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method to count a write out and adjust the limit with its latency, if it completed
+     */
+    private void release(long start, long end, int items, boolean completed) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight * 2 >= (int) limit;
+            inFlight--;
+            if (!completed) {
+                return;
+            }
+            if (end - start > targetLatency.toNanos() * items) {
+                if (start - cutAt > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    cutAt = end;
+                }
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import project.event.exception.EventRegistrationAppException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs transactional writes again when they lose an optimistic locking race.
+ * Each write must start its own transaction, so this is called from outside the @Transactional service methods.
+ */
+@Component
+public class ConflictRetry {
+
+    public static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_DELAY_MILLIS = 10;
+    private static final long MAX_DELAY_MILLIS = 200;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Run a write, retrying it with a randomized exponential backoff while it conflicts with another write
+     * @param operation the name of the write, used to tag the metrics
+     * @param write the write to run, in its own transaction
+     * @return the result of the write
+     */
+    public <T> T execute(String operation, Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            meterRegistry.counter("event.write.attempts", "operation", operation).increment();
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("event.write.conflicts", "operation", operation).increment();
+                if (attempt == MAX_ATTEMPTS) {
+                    meterRegistry.counter("event.write.conflicts.exhausted", "operation", operation).increment();
+                    throw new EventRegistrationAppException("The resource was modified concurrently, please try again",
+                            HttpStatus.CONFLICT);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Helper method to sleep for a random time up to an exponentially growing bound, so retries do not collide again
+     */
+    private void backOff(int attempt) {
+        long bound = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventRegistrationAppException("The resource was modified concurrently, please try again",
+                    HttpStatus.CONFLICT);
+        }
+    }
+}
@@ -2,13 +2,14 @@ package project.event.service;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import project.event.dao.EventManagerRepository;
 import project.event.dao.GeneralUserRepository;
 import project.event.exception.EventRegistrationAppException;
 import project.event.model.EventManager;
-import project.event.model.GeneralUser;
 
 import java.util.ArrayList;
 
@@ -21,6 +22,9 @@ public class EventManagerService {
     @Autowired
     private GeneralUserRepository generalUserRepository;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * Create an event manager
      * @param name the name of the event manager
@@ -31,16 +35,13 @@ public class EventManagerService {
         if (name == null || name.trim().isEmpty()) {
             throw new EventRegistrationAppException("Name cannot be empty", HttpStatus.BAD_REQUEST);
         }
-        // Check if there is a duplicate name
-        ArrayList<GeneralUser> generalUsers = new ArrayList<>(generalUserRepository.findAll());
-        generalUsers.addAll(eventManagerRepository.findAll());
-        for(GeneralUser generalUser : generalUsers) {
-            if (generalUser.getName().equals(name)) {
-                throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
-            }
+        // Check if there is a duplicate name (event managers are stored in the same table)
+        if (generalUserRepository.existsByName(name)) {
+            throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
         }
         EventManager eventManager = new EventManager(name);
-        eventManagerRepository.save(eventManager);
+        saveWithUniqueName(eventManager);
+        applicationEventPublisher.publishEvent(GeneralUserChangedEvent.added());
         return eventManager;
     }
 
@@ -51,7 +52,7 @@ public class EventManagerService {
      * @return the event manager updated
      */
     @Transactional
-    public EventManager updateEventManager(int eventManagerId, String name) {
+    public EventManager updateEventManager(long eventManagerId, String name) {
         if (name == null || name.trim().isEmpty()) {
             throw new EventRegistrationAppException("Name cannot be empty", HttpStatus.BAD_REQUEST);
         }
@@ -59,16 +60,15 @@ public class EventManagerService {
         if (eventManager == null) {
             throw new EventRegistrationAppException("Event manager not found", HttpStatus.BAD_REQUEST);
         }
-        // Check if there is a duplicate name
-        ArrayList<GeneralUser> generalUsers = new ArrayList<>(generalUserRepository.findAll());
-        generalUsers.addAll(eventManagerRepository.findAll());
-        for(GeneralUser generalUser : generalUsers) {
-            if (generalUser.getName().equals(name)) {
-                throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
-            }
+        // Check if there is a duplicate name (event managers are stored in the same table)
+        if (generalUserRepository.existsByName(name)) {
+            throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
         }
         eventManager.setName(name);
-        eventManagerRepository.save(eventManager);
+        saveWithUniqueName(eventManager);
+        applicationEventPublisher.publishEvent(GeneralUserChangedEvent.of(eventManagerId));
+        // The name of the event manager is shown with each of their planned events
+        applicationEventPublisher.publishEvent(PlannedEventChangedEvent.all());
         return eventManager;
     }
 
@@ -78,7 +78,7 @@ public class EventManagerService {
      * @return true if the event manager was deleted
      */
     @Transactional
-    public boolean deleteEventManager(int eventManagerId) {
+    public boolean deleteEventManager(long eventManagerId) {
         EventManager eventManager = eventManagerRepository.findEventManagerByGeneralUserId(eventManagerId);
         if (eventManager == null) {
             throw new EventRegistrationAppException("Event manager not found", HttpStatus.BAD_REQUEST);
@@ -88,6 +88,8 @@ public class EventManagerService {
         } catch (Exception e) {
             throw new EventRegistrationAppException("Event manager cannot be deleted", HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        applicationEventPublisher.publishEvent(GeneralUserChangedEvent.of(eventManagerId));
+        applicationEventPublisher.publishEvent(PlannedEventChangedEvent.all());
         return true;
     }
 
@@ -97,7 +99,7 @@ public class EventManagerService {
      * @return the event manager
      */
     @Transactional
-    public EventManager getEventManagerById(int eventManagerId) {
+    public EventManager getEventManagerById(long eventManagerId) {
         EventManager eventManager = eventManagerRepository.findEventManagerByGeneralUserId(eventManagerId);
         if (eventManager == null) {
             throw new EventRegistrationAppException("Event manager not found", HttpStatus.NOT_FOUND);
@@ -113,4 +115,16 @@ public class EventManagerService {
     public ArrayList<EventManager> getAllEventManagers() {
         return new ArrayList<>(eventManagerRepository.findAll());
     }
+
+    /**
+     * Helper method to save an event manager, mapping a violation of the unique name
+     * constraint (e.g. a concurrent signup with the same name) to a duplicate name error
+     */
+    private void saveWithUniqueName(EventManager eventManager) {
+        try {
+            eventManagerRepository.saveAndFlush(eventManager);
+        } catch (DataIntegrityViolationException e) {
+            throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package project.event.service;
+
+/**
+ * Published when general users or event managers are added, changed or deleted, so other instances can drop their
+ * cached copies of them and of the queries finding them.
+ */
+public class GeneralUserChangedEvent {
+
+    private final Long generalUserId;
+
+    private GeneralUserChangedEvent(Long generalUserId) {
+        this.generalUserId = generalUserId;
+    }
+
+    public static GeneralUserChangedEvent of(long generalUserId) {
+        return new GeneralUserChangedEvent(generalUserId);
+    }
+
+    // Used when general users are only added, which changes the results of queries but no cached general user
+    public static GeneralUserChangedEvent added() {
+        return new GeneralUserChangedEvent(null);
+    }
+
+    // Getters
+
+    /**
+     * @return the id of the general user that changed, or null if general users were only added
+     */
+    public Long getGeneralUserId() {
+        return this.generalUserId;
+    }
+}
@@ -0,0 +1,37 @@
+package project.event.service;
+
+public class GeneralUserImportSummary {
+
+    private final int created;
+    private final int duplicates;
+    private final int invalid;
+
+    public GeneralUserImportSummary(int created, int duplicates, int invalid) {
+        this.created = created;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+    }
+
+    // Getters
+
+    /**
+     * @return the number of general users created
+     */
+    public int getCreated() {
+        return this.created;
+    }
+
+    /**
+     * @return the number of names skipped because they already exist or appear earlier in the import
+     */
+    public int getDuplicates() {
+        return this.duplicates;
+    }
+
+    /**
+     * @return the number of lines skipped because they have no name
+     */
+    public int getInvalid() {
+        return this.invalid;
+    }
+}
@@ -1,24 +1,39 @@
 package project.event.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import project.event.dao.EventManagerRepository;
 import project.event.dao.GeneralUserRepository;
 import project.event.exception.EventRegistrationAppException;
+import project.event.model.EventManager;
 import project.event.model.GeneralUser;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class GeneralUserService {
 
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private GeneralUserRepository generalUserRepository;
 
     @Autowired
-    private EventManagerRepository eventManagerRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     /**
      * Create a general user
@@ -30,16 +45,13 @@ public class GeneralUserService {
         if (name == null || name.trim().isEmpty()) {
             throw new EventRegistrationAppException("Name cannot be empty", HttpStatus.BAD_REQUEST);
         }
-        // Checking if there is a duplicate name
-        ArrayList<GeneralUser> generalUsers = new ArrayList<>(generalUserRepository.findAll());
-        generalUsers.addAll(eventManagerRepository.findAll());
-        for(GeneralUser generalUser : generalUsers) {
-            if (generalUser.getName().equals(name)) {
-                throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
-            }
+        // Checking if there is a duplicate name (event managers are stored in the same table)
+        if (generalUserRepository.existsByName(name)) {
+            throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
         }
         GeneralUser generalUser = new GeneralUser(name);
-        generalUserRepository.save(generalUser);
+        saveWithUniqueName(generalUser);
+        applicationEventPublisher.publishEvent(GeneralUserChangedEvent.added());
         return generalUser;
     }
 
@@ -50,7 +62,7 @@ public class GeneralUserService {
      * @return the general user updated
      */
     @Transactional
-    public GeneralUser updateGeneralUser(int generalUserId, String name) {
+    public GeneralUser updateGeneralUser(long generalUserId, String name) {
         if (name == null || name.trim().isEmpty()) {
             throw new EventRegistrationAppException("Name cannot be empty", HttpStatus.BAD_REQUEST);
         }
@@ -58,16 +70,17 @@ public class GeneralUserService {
         if (generalUser == null) {
             throw new EventRegistrationAppException("General user not found", HttpStatus.BAD_REQUEST);
         }
-        // Checking if there is a duplicate name
-        ArrayList<GeneralUser> generalUsers = new ArrayList<>(generalUserRepository.findAll());
-        generalUsers.addAll(eventManagerRepository.findAll());
-        for(GeneralUser user : generalUsers) {
-            if (user.getName().equals(name)) {
-                throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
-            }
+        // Checking if there is a duplicate name (event managers are stored in the same table)
+        if (generalUserRepository.existsByName(name)) {
+            throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
         }
         generalUser.setName(name);
-        generalUserRepository.save(generalUser);
+        saveWithUniqueName(generalUser);
+        applicationEventPublisher.publishEvent(GeneralUserChangedEvent.of(generalUserId));
+        // Event managers are found by the same lookup, and their name is shown with each of their planned events
+        if (generalUser instanceof EventManager) {
+            applicationEventPublisher.publishEvent(PlannedEventChangedEvent.all());
+        }
         return generalUser;
     }
 
@@ -77,7 +90,7 @@ public class GeneralUserService {
      * @return true if the general user is deleted
      */
     @Transactional
-    public boolean deleteGeneralUser(int generalUserId) {
+    public boolean deleteGeneralUser(long generalUserId) {
         GeneralUser generalUser = generalUserRepository.findGeneralUserByGeneralUserId(generalUserId);
         if (generalUser == null) {
             throw new EventRegistrationAppException("General user not found", HttpStatus.BAD_REQUEST);
@@ -87,6 +100,7 @@ public class GeneralUserService {
         } catch (Exception e) {
             throw new EventRegistrationAppException("General user cannot be deleted", HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        applicationEventPublisher.publishEvent(GeneralUserChangedEvent.of(generalUserId));
         return true;
     }
 
@@ -96,7 +110,7 @@ public class GeneralUserService {
      * @return the general user found
      */
     @Transactional
-    public GeneralUser getGeneralUser(int generalUserId) {
+    public GeneralUser getGeneralUser(long generalUserId) {
         GeneralUser generalUser = generalUserRepository.findGeneralUserByGeneralUserId(generalUserId);
         if (generalUser == null) {
             throw new EventRegistrationAppException("General user not found", HttpStatus.NOT_FOUND);
@@ -112,4 +126,116 @@ public class GeneralUserService {
     public ArrayList<GeneralUser> getAllGeneralUsers() {
         return new ArrayList<>(generalUserRepository.findAll());
     }
+
+    /**
+     * Import general users from CSV, one name per line in the first column (an optional "name" header is skipped).
+     * The input is read and inserted in chunks, so memory use does not depend on its size.
+     * @param reader the CSV input
+     * @return how many general users were created, and how many lines were skipped
+     */
+    @Transactional
+    public GeneralUserImportSummary importGeneralUsers(Reader reader) {
+        int created = 0;
+        int duplicates = 0;
+        int invalid = 0;
+        try {
+            BufferedReader lines = new BufferedReader(reader);
+            Set<String> chunk = new LinkedHashSet<>();
+            boolean firstLine = true;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                String name = parseFirstCsvField(line);
+                if (firstLine && name.equalsIgnoreCase("name")) {
+                    firstLine = false;
+                    continue;
+                }
+                firstLine = false;
+                if (name.isEmpty()) {
+                    invalid++;
+                } else if (!chunk.add(name)) {
+                    duplicates++;
+                }
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    int inserted = insertNewNames(chunk);
+                    created += inserted;
+                    duplicates += chunk.size() - inserted;
+                    chunk.clear();
+                }
+            }
+            int inserted = insertNewNames(chunk);
+            created += inserted;
+            duplicates += chunk.size() - inserted;
+        } catch (IOException e) {
+            throw new EventRegistrationAppException("General users could not be imported", HttpStatus.BAD_REQUEST);
+        }
+        if (created > 0) {
+            applicationEventPublisher.publishEvent(GeneralUserChangedEvent.added());
+        }
+        return new GeneralUserImportSummary(created, duplicates, invalid);
+    }
+
+    /**
+     * Helper method to insert the names of a chunk that are not taken yet
+     * @return the number of general users inserted
+     */
+    private int insertNewNames(Set<String> names) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+        // One index lookup for the whole chunk instead of one query per name
+        Set<String> existingNames = generalUserRepository.findExistingNames(names);
+        List<GeneralUser> generalUsers = new ArrayList<>();
+        for (String name : names) {
+            if (!existingNames.contains(name)) {
+                generalUsers.add(new GeneralUser(name));
+            }
+        }
+        try {
+            generalUserRepository.saveAll(generalUsers);
+            generalUserRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
+        }
+        // Detach the chunk so the persistence context does not grow with the import
+        entityManager.clear();
+        return generalUsers.size();
+    }
+
+    /**
+     * Helper method to read the first field of a CSV line, which may be quoted
+     */
+    private static String parseFirstCsvField(String line) {
+        String trimmed = line.trim();
+        if (!trimmed.startsWith("\"")) {
+            int comma = trimmed.indexOf(',');
+            return (comma < 0 ? trimmed : trimmed.substring(0, comma)).trim();
+        }
+        StringBuilder field = new StringBuilder();
+        for (int i = 1; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '"') {
+                if (i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    break;
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        return field.toString().trim();
+    }
+
+    /**
+     * Helper method to save a general user, mapping a violation of the unique name
+     * constraint (e.g. a concurrent signup with the same name) to a duplicate name error
+     */
+    private void saveWithUniqueName(GeneralUser generalUser) {
+        try {
+            generalUserRepository.saveAndFlush(generalUser);
+        } catch (DataIntegrityViolationException e) {
+            throw new EventRegistrationAppException("Name already exists", HttpStatus.BAD_REQUEST);
+        }
+    }
 }
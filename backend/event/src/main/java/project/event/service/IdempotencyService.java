@@ -0,0 +1,225 @@
+package project.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import project.event.dao.IdempotencyRecordRepository;
+import project.event.exception.EventRegistrationAppException;
+import project.event.model.IdempotencyRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Answers client retries of a POST carrying the same Idempotency-Key with the response of the first request,
+ * without running it again.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Value("${event.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${event.idempotency.max-entries:100000}")
+    private long maxEntries;
+
+    // The table lets other instances, and this one after a restart, replay responses too
+    @Value("${event.idempotency.table-enabled:false}")
+    private boolean tableEnabled;
+
+    // Requests still running are in the cache as incomplete futures, so a concurrent retry waits for their response
+    private AsyncCache<String, IdempotentResponse> responses;
+
+    @PostConstruct
+    public void createCache() {
+        responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .buildAsync();
+    }
+
+    /**
+     * Run a request once per idempotency key, replaying the stored response for every retry
+     * @param operation the method and path of the request, so keys of different endpoints never collide
+     * @param idempotencyKey the key sent by the client, or null to always run the request
+     * @param request the request body, used to reject a key reused for a different request
+     * @param action the request to run
+     * @return the response of the request, or the stored response of the first request with the same key
+     */
+    public ResponseEntity<?> execute(String operation, String idempotencyKey, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        try {
+            return executeAsync(operation, idempotencyKey, request,
+                    () -> CompletableFuture.completedFuture(action.get())).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run a request that completes later once per idempotency key, replaying the stored response for every retry
+     * @param operation the method and path of the request, so keys of different endpoints never collide
+     * @param idempotencyKey the key sent by the client, or null to always run the request
+     * @param request the request body, used to reject a key reused for a different request
+     * @param action the request to run
+     * @return the response of the request, or the stored response of the first request with the same key
+     */
+    public CompletableFuture<ResponseEntity<?>> executeAsync(String operation, String idempotencyKey, Object request,
+                                                             Supplier<CompletableFuture<ResponseEntity<?>>> action) {
+        if (idempotencyKey == null) {
+            return start(action);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.failedFuture(new EventRegistrationAppException("Idempotency key must be between 1 and " +
+                    MAX_KEY_LENGTH + " characters", HttpStatus.BAD_REQUEST));
+        }
+        String key = operation + " " + idempotencyKey;
+        String fingerprint = fingerprint(operation, request);
+        CompletableFuture<IdempotentResponse> pending = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> existing = responses.asMap().putIfAbsent(key, pending);
+        if (existing == null) {
+            return runOnce(key, fingerprint, action, pending);
+        }
+        // The first request failed if the stored response completes exceptionally, and failures are not stored,
+        // so this retry runs the request itself
+        return existing.handle((stored, error) -> error == null
+                ? CompletableFuture.<ResponseEntity<?>>completedFuture(replay(stored, fingerprint))
+                : executeAsync(operation, idempotencyKey, request, action)
+        ).thenCompose(Function.identity());
+    }
+
+    /**
+     * Delete the stored responses that have expired from the table
+     */
+    @Scheduled(fixedDelayString = "${event.idempotency.purge-interval:PT1H}")
+    public void purgeExpiredRecords() {
+        if (tableEnabled) {
+            idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+        }
+    }
+
+    /**
+     * Helper method to run a request whose key was not in the cache, and complete the pending future with its response
+     */
+    private CompletableFuture<ResponseEntity<?>> runOnce(String key, String fingerprint,
+                                                         Supplier<CompletableFuture<ResponseEntity<?>>> action,
+                                                         CompletableFuture<IdempotentResponse> pending) {
+        IdempotentResponse found;
+        try {
+            found = tableEnabled ? findRecord(key) : null;
+        } catch (RuntimeException e) {
+            fail(key, pending, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        if (found != null) {
+            pending.complete(found);
+            return CompletableFuture.completedFuture(replay(found, fingerprint));
+        }
+        return start(action).whenComplete((response, error) -> {
+            if (error != null) {
+                fail(key, pending, error);
+                return;
+            }
+            try {
+                IdempotentResponse stored = new IdempotentResponse(fingerprint, response.getStatusCode().value(),
+                        objectMapper.writeValueAsBytes(response.getBody()));
+                if (tableEnabled) {
+                    idempotencyRecordRepository.save(new IdempotencyRecord(key, fingerprint, stored.getStatus(),
+                            stored.getBody(), Instant.now()));
+                }
+                pending.complete(stored);
+            } catch (RuntimeException | JsonProcessingException e) {
+                // The response still goes back to the client, it just cannot be replayed
+                fail(key, pending, e);
+            }
+        });
+    }
+
+    /**
+     * Helper method to start a request, turning an exception thrown right away into a failed future
+     */
+    private CompletableFuture<ResponseEntity<?>> start(Supplier<CompletableFuture<ResponseEntity<?>>> action) {
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Helper method to forget a request that produced no stored response, waking up the retries waiting for it
+     */
+    private void fail(String key, CompletableFuture<IdempotentResponse> pending, Throwable error) {
+        responses.asMap().remove(key, pending);
+        pending.completeExceptionally(error);
+    }
+
+    /**
+     * Helper method to read a stored response from the table, ignoring it if it has expired
+     */
+    private IdempotentResponse findRecord(String key) {
+        IdempotencyRecord record = idempotencyRecordRepository.findIdempotencyRecordByIdempotencyKey(key);
+        if (record == null || record.getCreatedAt().isBefore(Instant.now().minus(ttl))) {
+            return null;
+        }
+        return new IdempotentResponse(record.getRequestFingerprint(), record.getStatus(), record.getBody());
+    }
+
+    /**
+     * Helper method to answer a retry with the stored response
+     */
+    private ResponseEntity<?> replay(IdempotentResponse stored, String fingerprint) {
+        if (!stored.getRequestFingerprint().equals(fingerprint)) {
+            throw new EventRegistrationAppException("Idempotency key was already used for a different request",
+                    HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        return ResponseEntity.status(stored.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    /**
+     * Helper method to hash the operation and request body
+     */
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new EventRegistrationAppException("Invalid request", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package project.event.service;
+
+public class IdempotentResponse {
+
+    private final String requestFingerprint;
+    private final int status;
+    private final byte[] body;
+
+    public IdempotentResponse(String requestFingerprint, int status, byte[] body) {
+        this.requestFingerprint = requestFingerprint;
+        this.status = status;
+        this.body = body;
+    }
+
+    // Getters
+
+    /**
+     * @return the hash of the operation and request body the response was produced for
+     */
+    public String getRequestFingerprint() {
+        return this.requestFingerprint;
+    }
+
+    public int getStatus() {
+        return this.status;
+    }
+
+    /**
+     * @return the response body, serialized as JSON
+     */
+    public byte[] getBody() {
+        return this.body;
+    }
+}
@@ -0,0 +1,108 @@
+package project.event.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import project.event.dto.PlannedEventResponseDto;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Keeps the planned events shown on event detail pages in memory, dropping each one once a change to it commits.
+ * Hits, misses and evictions are exposed as the cache metrics of the "plannedEvent" cache.
+ */
+@Component
+public class PlannedEventCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${event.cache.planned-event.max-entries:10000}")
+    private long maxEntries;
+
+    // Changes made by other instances show up once their entry expires, or sooner through CacheInvalidationBus
+    @Value("${event.cache.planned-event.ttl:5m}")
+    private Duration ttl;
+
+    private AsyncCache<Long, PlannedEventResponseDto> plannedEvents;
+
+    @PostConstruct
+    public void createCache() {
+        plannedEvents = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, plannedEvents, "plannedEvent");
+    }
+
+    /**
+     * Get a planned event from the cache, loading it on a miss
+     * @param plannedEventId the id of the planned event
+     * @param loader loads the planned event, and throws if it does not exist so nothing is cached
+     * @return the planned event
+     */
+    public PlannedEventResponseDto get(long plannedEventId, Function<Long, PlannedEventResponseDto> loader) {
+        // The cache only holds the pending load under its lock, and the loader runs afterwards on the calling thread:
+        // a virtual thread waiting on the database inside the lock would pin its carrier thread.
+        // Other misses for the same planned event still wait for this one load.
+        CompletableFuture<PlannedEventResponseDto> pending = new CompletableFuture<>();
+        CompletableFuture<PlannedEventResponseDto> cached = plannedEvents.get(plannedEventId, (key, executor) -> pending);
+        if (cached == pending) {
+            try {
+                pending.complete(loader.apply(plannedEventId));
+            } catch (Throwable e) {
+                // A failed load is dropped from the cache, so nothing is cached for a missing planned event.
+                // Errors fail it too, otherwise the other misses for this planned event would wait forever.
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Put a planned event that was read anyway into the cache, unless it is already cached or being loaded
+     * @param plannedEvent the planned event
+     */
+    public void putIfAbsent(PlannedEventResponseDto plannedEvent) {
+        plannedEvents.asMap().putIfAbsent(plannedEvent.getEventId(), CompletableFuture.completedFuture(plannedEvent));
+    }
+
+    /**
+     * Drop the planned events that changed, once the transaction changing them commits
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlannedEventChanged(PlannedEventChangedEvent event) {
+        evict(event.getPlannedEventId());
+    }
+
+    /**
+     * Drop a planned event from the cache
+     * @param plannedEventId the id of the planned event, or null to drop all of them
+     */
+    public void evict(Long plannedEventId) {
+        if (plannedEventId == null) {
+            plannedEvents.synchronous().invalidateAll();
+        } else {
+            plannedEvents.synchronous().invalidate(plannedEventId);
+        }
+    }
+}
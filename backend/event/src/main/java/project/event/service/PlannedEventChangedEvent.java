@@ -0,0 +1,31 @@
+package project.event.service;
+
+/**
+ * Published when a planned event, or what is shown along with it, changes, so copies of it can be dropped.
+ */
+public class PlannedEventChangedEvent {
+
+    private final Long plannedEventId;
+
+    private PlannedEventChangedEvent(Long plannedEventId) {
+        this.plannedEventId = plannedEventId;
+    }
+
+    public static PlannedEventChangedEvent of(long plannedEventId) {
+        return new PlannedEventChangedEvent(plannedEventId);
+    }
+
+    // Used when a change, such as an event manager rename, can touch any number of planned events
+    public static PlannedEventChangedEvent all() {
+        return new PlannedEventChangedEvent(null);
+    }
+
+    // Getters
+
+    /**
+     * @return the id of the planned event that changed, or null if any of them may have
+     */
+    public Long getPlannedEventId() {
+        return this.plannedEventId;
+    }
+}
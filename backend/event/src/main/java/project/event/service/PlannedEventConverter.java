@@ -0,0 +1,40 @@
+package project.event.service;
+
+import project.event.dto.EventManagerResponseDto;
+import project.event.dto.PlannedEventResponseDto;
+import project.event.model.PlannedEvent;
+
+/**
+ * Converts planned events into the DTOs served by the API, which are also the entries of PlannedEventCache
+ */
+public final class PlannedEventConverter {
+
+    private PlannedEventConverter() {
+    }
+
+    /**
+     * Convert a planned event, read with its event manager, into a DTO whose months start at 0
+     * @param plannedEvent the planned event
+     * @return the DTO
+     */
+    public static PlannedEventResponseDto toDto(PlannedEvent plannedEvent) {
+        EventManagerResponseDto eventManagerResponseDto = new EventManagerResponseDto(
+                plannedEvent.getEventManager().getName(),
+                plannedEvent.getEventManager().getGeneralUserId()
+        );
+        return new PlannedEventResponseDto(
+                eventManagerResponseDto,
+                plannedEvent.getEventName(),
+                plannedEvent.getDescription(),
+                plannedEvent.getLocation(),
+                plannedEvent.getDate().getYear(),
+                plannedEvent.getDate().getMonthValue() - 1,
+                plannedEvent.getDate().getDayOfMonth(),
+                plannedEvent.getPlannedEventId(),
+                plannedEvent.getCapacity(),
+                plannedEvent.getSeatsReserved(),
+                plannedEvent.getWaitlistCount(),
+                plannedEvent.getVersion()
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package project.event.service;
+
+import project.event.model.PlannedEvent;
+
+import java.util.List;
+
+public class PlannedEventPage {
+
+    private final List<PlannedEvent> plannedEvents;
+    private final String nextCursor;
+
+    public PlannedEventPage(List<PlannedEvent> plannedEvents, String nextCursor) {
+        this.plannedEvents = plannedEvents;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<PlannedEvent> getPlannedEvents() {
+        return this.plannedEvents;
+    }
+
+    /**
+     * @return the opaque cursor of the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+}
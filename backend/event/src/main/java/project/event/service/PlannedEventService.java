@@ -2,27 +2,44 @@ package project.event.service;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import project.event.dao.EventManagerRepository;
 import project.event.dao.PlannedEventRepository;
+import project.event.dto.PlannedEventCursor;
 import project.event.exception.EventRegistrationAppException;
 import project.event.model.EventManager;
 import project.event.model.PlannedEvent;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
-import java.util.Locale;
+import java.util.List;
 
 @Service
 public class PlannedEventService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_UPCOMING_DAYS = 366;
+    public static final int PROMOTION_CHUNK_SIZE = 500;
+
+    // Stand-ins for an open end of a date range, both within what the database can store
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private PlannedEventRepository plannedEventRepository;
 
     @Autowired
     private EventManagerRepository eventManagerRepository;
 
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * Create a planned event using objects
      * @param eventManager the event manager creating the event
@@ -34,7 +51,7 @@ public class PlannedEventService {
      */
     @Transactional
     public PlannedEvent createPlannedEvent(EventManager eventManager, String eventName, String description,
-                                           String location, GregorianCalendar date) {
+                                           String location, LocalDate date) {
         if (eventManager == null) {
             throw new EventRegistrationAppException("Event manager must be instantiated", HttpStatus.BAD_REQUEST);
         }
@@ -48,7 +65,7 @@ public class PlannedEventService {
         if (date == null) {
             throw new EventRegistrationAppException("Date must be instantiated", HttpStatus.BAD_REQUEST);
         }
-        if (date.compareTo(new GregorianCalendar(Locale.CANADA_FRENCH)) < 0) {
+        if (date.isBefore(LocalDate.now())) {
             throw new EventRegistrationAppException("Date cannot be in the past", HttpStatus.BAD_REQUEST);
         }
         PlannedEvent plannedEvent = new PlannedEvent(eventManager, eventName, description, location, date);
@@ -66,8 +83,24 @@ public class PlannedEventService {
      * @return the planned event created
      */
     @Transactional
-    public PlannedEvent createPlannedEvent(int eventManagerId, String eventName, String description,
-                                           String location, GregorianCalendar date) {
+    public PlannedEvent createPlannedEvent(long eventManagerId, String eventName, String description,
+                                           String location, LocalDate date) {
+        return createPlannedEvent(eventManagerId, eventName, description, location, date, null);
+    }
+
+    /**
+     * Create a planned event with a limited number of seats using ids
+     * @param eventManagerId the event manager id creating the event
+     * @param eventName the name of the event
+     * @param description the description of the event (optional)
+     * @param location the location of the event
+     * @param date the date of the event
+     * @param capacity the maximum number of registrations, or null for no limit
+     * @return the planned event created
+     */
+    @Transactional
+    public PlannedEvent createPlannedEvent(long eventManagerId, String eventName, String description,
+                                           String location, LocalDate date, Integer capacity) {
         EventManager eventManager = eventManagerRepository.findEventManagerByGeneralUserId(eventManagerId);
         if (eventManager == null) {
             throw new EventRegistrationAppException("Event manager not found", HttpStatus.NOT_FOUND);
@@ -82,10 +115,13 @@ public class PlannedEventService {
         if (date == null) {
             throw new EventRegistrationAppException("Date must be instantiated", HttpStatus.BAD_REQUEST);
         }
-        if (date.compareTo(new GregorianCalendar(Locale.CANADA_FRENCH)) < 0) {
+        if (date.isBefore(LocalDate.now())) {
             throw new EventRegistrationAppException("Date cannot be in the past", HttpStatus.BAD_REQUEST);
         }
-        PlannedEvent plannedEvent = new PlannedEvent(eventManager, eventName, description, location, date);
+        if (capacity != null && capacity < 1) {
+            throw new EventRegistrationAppException("Capacity must be at least 1", HttpStatus.BAD_REQUEST);
+        }
+        PlannedEvent plannedEvent = new PlannedEvent(eventManager, eventName, description, location, date, capacity);
         plannedEventRepository.save(plannedEvent);
         return plannedEvent;
     }
@@ -100,30 +136,47 @@ public class PlannedEventService {
      * @return the updated planned event
      */
     @Transactional
-    public PlannedEvent updatePlannedEvent(int plannedEventId, String eventName, String description,
-                                           String location, GregorianCalendar date) {
-        PlannedEvent plannedEvent = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEventId);
-        if (plannedEvent == null) {
-            throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
-        }
-        if (eventName == null || eventName.trim().isEmpty()) {
-            throw new EventRegistrationAppException("Event name cannot be empty", HttpStatus.BAD_REQUEST);
-        }
-        // A description is optional, so it won't be checked
-        if (location == null || location.trim().isEmpty()) {
-            throw new EventRegistrationAppException("Location cannot be empty", HttpStatus.BAD_REQUEST);
+    public PlannedEvent updatePlannedEvent(long plannedEventId, String eventName, String description,
+                                           String location, LocalDate date) {
+        return updatePlannedEventFields(plannedEventId, null, eventName, description, location, date);
+    }
+
+    /**
+     * Update a planned event along with its number of seats
+     * @param plannedEventId the id of the planned event to update
+     * @param eventName the updated name of the event
+     * @param description the updated description of the event (optional)
+     * @param location the updated location of the event
+     * @param date the updated date of the event
+     * @param capacity the updated maximum number of registrations, or null for no limit
+     * @param expectedVersion the version of the planned event the update is based on, or null to skip the check
+     * @return the updated planned event
+     */
+    @Transactional
+    public PlannedEvent updatePlannedEvent(long plannedEventId, String eventName, String description,
+                                           String location, LocalDate date, Integer capacity, Long expectedVersion) {
+        if (capacity != null && capacity < 1) {
+            throw new EventRegistrationAppException("Capacity must be at least 1", HttpStatus.BAD_REQUEST);
         }
-        if (date == null) {
-            throw new EventRegistrationAppException("Date must be instantiated", HttpStatus.BAD_REQUEST);
+        PlannedEvent plannedEvent = updatePlannedEventFields(plannedEventId, expectedVersion, eventName, description,
+                location, date);
+        // Checked against the seat counter in the database, since registrations may be reserving seats right now
+        if (plannedEventRepository.updateCapacity(plannedEventId, capacity) == 0) {
+            throw new EventRegistrationAppException("Capacity cannot be less than the seats already reserved",
+                    HttpStatus.BAD_REQUEST);
         }
-        if (date.compareTo(new GregorianCalendar(Locale.CANADA_FRENCH)) < 0) {
-            throw new EventRegistrationAppException("Date cannot be in the past", HttpStatus.BAD_REQUEST);
+        plannedEvent.setCapacity(capacity);
+        // Seats added by a higher capacity go to the people waiting, before anyone new can take them. The waitlist is
+        // locked and promoted a chunk at a time, so a large increase never loads the whole waitlist at once
+        int freeSeats = capacity == null ? Integer.MAX_VALUE : capacity - plannedEvent.getSeatsReserved();
+        while (freeSeats > 0) {
+            int chunkSize = Math.min(freeSeats, PROMOTION_CHUNK_SIZE);
+            int promoted = registrationService.promoteFromWaitlist(plannedEvent, Limit.of(chunkSize)).size();
+            if (promoted < chunkSize) {
+                break;
+            }
+            freeSeats -= promoted;
         }
-        plannedEvent.setPlannedEventName(eventName);
-        plannedEvent.setDescription(description);
-        plannedEvent.setLocation(location);
-        plannedEvent.setDate(date);
-        plannedEventRepository.save(plannedEvent);
         return plannedEvent;
     }
 
@@ -133,7 +186,7 @@ public class PlannedEventService {
      * @return true if the planned event is deleted
      */
     @Transactional
-    public Boolean deletePlannedEvent(int plannedEventId) {
+    public Boolean deletePlannedEvent(long plannedEventId) {
         PlannedEvent plannedEvent = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEventId);
         if (plannedEvent == null) {
             throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
@@ -143,6 +196,7 @@ public class PlannedEventService {
         } catch (Exception e) {
             throw new EventRegistrationAppException("Planned event could not be deleted", HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(plannedEventId));
         return true;
     }
 
@@ -152,7 +206,7 @@ public class PlannedEventService {
      * @return the planned event
      */
     @Transactional
-    public PlannedEvent getPlannedEventById(int plannedEventId) {
+    public PlannedEvent getPlannedEventById(long plannedEventId) {
         PlannedEvent plannedEvent = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEventId);
         if (plannedEvent == null) {
             throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
@@ -169,5 +223,120 @@ public class PlannedEventService {
         return new ArrayList<>(plannedEventRepository.findAll());
     }
 
+    /**
+     * Get one page of planned events, ordered by date then id
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of planned events in the page
+     * @return the page of planned events along with the cursor of the next page
+     */
+    @Transactional
+    public PlannedEventPage getPlannedEventsPage(String cursor, int pageSize) {
+        return getPlannedEventsPage(null, null, cursor, pageSize);
+    }
 
+    /**
+     * Get one page of the planned events taking place between two dates, ordered by date then id
+     * @param from the first date of the range (inclusive), or null for no lower bound
+     * @param to the last date of the range (inclusive), or null for no upper bound
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of planned events in the page
+     * @return the page of planned events along with the cursor of the next page
+     */
+    @Transactional
+    public PlannedEventPage getPlannedEventsPage(LocalDate from, LocalDate to, String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new EventRegistrationAppException("Page size must be between 1 and " + MAX_PAGE_SIZE,
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new EventRegistrationAppException("Start date cannot be after end date", HttpStatus.BAD_REQUEST);
+        }
+        // Fetching one extra row tells us whether there is a next page
+        Limit limit = Limit.of(pageSize + 1);
+        boolean ranged = from != null || to != null;
+        LocalDate lowerBound = from == null ? MIN_DATE : from;
+        LocalDate upperBound = to == null ? MAX_DATE : to;
+        List<PlannedEvent> plannedEvents;
+        if (cursor == null || cursor.isEmpty()) {
+            plannedEvents = ranged
+                    ? plannedEventRepository.findFirstPageBetween(lowerBound, upperBound, limit)
+                    : plannedEventRepository.findFirstPage(limit);
+        } else {
+            PlannedEventCursor key = decodeCursor(cursor);
+            plannedEvents = ranged
+                    ? plannedEventRepository.findPageBetweenAfter(lowerBound, upperBound, key.getDate(),
+                            key.getPlannedEventId(), limit)
+                    : plannedEventRepository.findPageAfter(key.getDate(), key.getPlannedEventId(), limit);
+        }
+        if (plannedEvents.size() <= pageSize) {
+            return new PlannedEventPage(plannedEvents, null);
+        }
+        plannedEvents = plannedEvents.subList(0, pageSize);
+        PlannedEvent last = plannedEvents.get(pageSize - 1);
+        String nextCursor = new PlannedEventCursor(last.getDate(), last.getPlannedEventId()).encode();
+        return new PlannedEventPage(plannedEvents, nextCursor);
+    }
+
+    /**
+     * Get one page of the planned events taking place from today onwards, ordered by date then id
+     * @param days the number of days to look ahead, today included
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of planned events in the page
+     * @return the page of planned events along with the cursor of the next page
+     */
+    @Transactional
+    public PlannedEventPage getUpcomingPlannedEvents(int days, String cursor, int pageSize) {
+        if (days < 1 || days > MAX_UPCOMING_DAYS) {
+            throw new EventRegistrationAppException("Days must be between 1 and " + MAX_UPCOMING_DAYS,
+                    HttpStatus.BAD_REQUEST);
+        }
+        LocalDate today = LocalDate.now();
+        return getPlannedEventsPage(today, today.plusDays(days - 1), cursor, pageSize);
+    }
+
+    /**
+     * Helper method to update the fields of a planned event, other than its capacity
+     */
+    private PlannedEvent updatePlannedEventFields(long plannedEventId, Long expectedVersion, String eventName,
+                                                  String description, String location, LocalDate date) {
+        PlannedEvent plannedEvent = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEventId);
+        if (plannedEvent == null) {
+            throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
+        }
+        // The version check on flush only catches edits made during this transaction, this one catches earlier ones
+        if (expectedVersion != null && plannedEvent.getVersion() != expectedVersion) {
+            throw new EventRegistrationAppException("Planned event was modified by someone else", HttpStatus.CONFLICT);
+        }
+        if (eventName == null || eventName.trim().isEmpty()) {
+            throw new EventRegistrationAppException("Event name cannot be empty", HttpStatus.BAD_REQUEST);
+        }
+        // A description is optional, so it won't be checked
+        if (location == null || location.trim().isEmpty()) {
+            throw new EventRegistrationAppException("Location cannot be empty", HttpStatus.BAD_REQUEST);
+        }
+        if (date == null) {
+            throw new EventRegistrationAppException("Date must be instantiated", HttpStatus.BAD_REQUEST);
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new EventRegistrationAppException("Date cannot be in the past", HttpStatus.BAD_REQUEST);
+        }
+        plannedEvent.setPlannedEventName(eventName);
+        plannedEvent.setDescription(description);
+        plannedEvent.setLocation(location);
+        plannedEvent.setDate(date);
+        plannedEventRepository.save(plannedEvent);
+        applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(plannedEventId));
+        return plannedEvent;
+    }
+
+    /**
+     * Helper method to decode a cursor into the (date, id) key of the last planned event of the previous page
+     */
+    private PlannedEventCursor decodeCursor(String cursor) {
+        try {
+            return PlannedEventCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new EventRegistrationAppException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
 }
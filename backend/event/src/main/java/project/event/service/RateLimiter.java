@@ -0,0 +1,141 @@
+package project.event.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import project.event.exception.RateLimitExceededException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits how often each client can call a write endpoint, with one token bucket per endpoint and client.
+ * Every endpoint uses event.rate-limit.capacity and event.rate-limit.refill-per-second unless it has its own
+ * event.rate-limit.[endpoint].capacity and event.rate-limit.[endpoint].refill-per-second.
+ */
+@Component
+public class RateLimiter {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${event.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${event.rate-limit.capacity:20}")
+    private long defaultCapacity;
+
+    @Value("${event.rate-limit.refill-per-second:5}")
+    private double defaultRefillPerSecond;
+
+    @Value("${event.rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    // A bucket left alone this long has refilled anyway, so forgetting it changes nothing
+    @Value("${event.rate-limit.idle-timeout:PT10M}")
+    private Duration idleTimeout;
+
+    private Cache<String, TokenBucket> buckets;
+    private final Map<String, TokenBucket> limits = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void createCache() {
+        buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    /**
+     * Take a token from the bucket of a client for an endpoint
+     * @param endpoint the name of the endpoint, used to look up its limit and to tag the metrics
+     * @param client the key of the client, see address
+     * @throws RateLimitExceededException if the bucket is empty, with the time until it holds a token again
+     */
+    public void acquire(String endpoint, String client) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket limit = limits.computeIfAbsent(endpoint, this::readLimit);
+        TokenBucket bucket = buckets.get(endpoint + " " + client, key -> limit.copy(System.nanoTime()));
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            meterRegistry.counter("event.rate-limit.rejected", "endpoint", endpoint).increment();
+            throw new RateLimitExceededException(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Get the client key of a request, from the address it came from
+     * NOTE: Requests carry no credentials, so a user id in the path or body says nothing about who sent it and is
+     * never used as a key; keying on it would let a client rotate ids for fresh buckets, or drain someone else's
+     * Behind a trusted proxy the address is the client's, resolved from X-Forwarded-For by Tomcat before this runs
+     * (see server.tomcat.remoteip in application.properties)
+     * @param request the request
+     * @return the client key
+     */
+    public static String address(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Helper method to read the configured limit of an endpoint, falling back to the default one
+     */
+    private TokenBucket readLimit(String endpoint) {
+        return new TokenBucket(
+                environment.getProperty("event.rate-limit." + endpoint + ".capacity", Long.class, defaultCapacity),
+                environment.getProperty("event.rate-limit." + endpoint + ".refill-per-second", Double.class,
+                        defaultRefillPerSecond),
+                0
+        );
+    }
+
+    private static final class TokenBucket {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(long capacity, double refillPerSecond, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        private TokenBucket copy(long now) {
+            return new TokenBucket(capacity, refillPerNano * 1_000_000_000d, now);
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanoseconds until the next token
+         */
+        private long tryAcquire(long now) {
+            lock.lock();
+            try {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+                refilledAt = now;
+                if (tokens >= 1) {
+                    tokens--;
+                    return 0;
+                }
+                return refillPerNano > 0 ? (long) Math.ceil((1 - tokens) / refillPerNano) : Long.MAX_VALUE;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package project.event.service;
+
+import org.springframework.http.HttpStatus;
+import project.event.model.Registration;
+
+public class RegistrationBatchResult {
+
+    private final Registration registration;
+    private final String error;
+    private final HttpStatus status;
+
+    private RegistrationBatchResult(Registration registration, String error, HttpStatus status) {
+        this.registration = registration;
+        this.error = error;
+        this.status = status;
+    }
+
+    public static RegistrationBatchResult created(Registration registration) {
+        return new RegistrationBatchResult(registration, null, HttpStatus.CREATED);
+    }
+
+    public static RegistrationBatchResult failed(String error, HttpStatus status) {
+        return new RegistrationBatchResult(null, error, status);
+    }
+
+    // Getters
+
+    /**
+     * @return the registration created, or null if the item failed
+     */
+    public Registration getRegistration() {
+        return this.registration;
+    }
+
+    /**
+     * @return why the item failed, or null if the registration was created
+     */
+    public String getError() {
+        return this.error;
+    }
+
+    public HttpStatus getStatus() {
+        return this.status;
+    }
+}
@@ -0,0 +1,48 @@
+package project.event.service;
+
+import project.event.model.Registration;
+import project.event.model.WaitlistEntry;
+
+public class RegistrationOutcome {
+
+    private final Registration registration;
+    private final WaitlistEntry waitlistEntry;
+    private final long position;
+
+    private RegistrationOutcome(Registration registration, WaitlistEntry waitlistEntry, long position) {
+        this.registration = registration;
+        this.waitlistEntry = waitlistEntry;
+        this.position = position;
+    }
+
+    public static RegistrationOutcome registered(Registration registration) {
+        return new RegistrationOutcome(registration, null, 0);
+    }
+
+    public static RegistrationOutcome waitlisted(WaitlistEntry waitlistEntry, long position) {
+        return new RegistrationOutcome(null, waitlistEntry, position);
+    }
+
+    // Getters
+
+    /**
+     * @return the registration created, or null if the general user was put on the waitlist
+     */
+    public Registration getRegistration() {
+        return this.registration;
+    }
+
+    /**
+     * @return the waitlist entry created, or null if the general user got a seat
+     */
+    public WaitlistEntry getWaitlistEntry() {
+        return this.waitlistEntry;
+    }
+
+    /**
+     * @return the position on the waitlist, starting at 1, or 0 if the general user got a seat
+     */
+    public long getPosition() {
+        return this.position;
+    }
+}
@@ -0,0 +1,228 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import project.event.exception.EventRegistrationAppException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Ticket drop mode: registration requests are queued per planned event and applied in batches by a single writer,
+ * so a popular planned event costs a few batch inserts instead of thousands of transactions fighting over its row.
+ * Planned events are spread over a fixed number of shards, each with its own queue and writer thread.
+ */
+@Component
+public class RegistrationQueue {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Futures are completed here rather than on the writers, so the work chained onto them by the callers
+    // (building and storing the response) does not hold up the next batch
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor completionExecutor;
+
+    @Value("${event.registration.queue.enabled:false}")
+    private boolean enabled;
+
+    @Value("${event.registration.queue.shards:4}")
+    private int shardCount;
+
+    // Requests beyond this many waiting in a shard are turned away rather than held in memory
+    @Value("${event.registration.queue.capacity:10000}")
+    private int capacity;
+
+    private final List<BlockingQueue<PendingRegistration>> queues = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private DistributionSummary batchSizes;
+    private volatile boolean stopped;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        batchSizes = meterRegistry.summary("event.registration.queue.batch.size");
+        for (int shard = 0; shard < shardCount; shard++) {
+            BlockingQueue<PendingRegistration> queue = new ArrayBlockingQueue<>(capacity);
+            meterRegistry.gaugeCollectionSize("event.registration.queue.size",
+                    List.of(Tag.of("shard", String.valueOf(shard))), queue);
+            Thread writer = new Thread(() -> drain(queue), "registration-writer-" + shard);
+            writer.setDaemon(true);
+            writer.start();
+            queues.add(queue);
+            writers.add(writer);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        writers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * @return true if registrations should be submitted to the queue
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Queue the registration of a general user for a planned event
+     * @param plannedEventId the id of the planned event
+     * @param generalUserId the id of the general user
+     * @return the registration created, or the waitlist entry created if the planned event is full, once applied
+     */
+    public CompletableFuture<RegistrationOutcome> submit(long plannedEventId, long generalUserId) {
+        if (stopped) {
+            return CompletableFuture.failedFuture(shuttingDown());
+        }
+        PendingRegistration pending = new PendingRegistration(plannedEventId, generalUserId);
+        BlockingQueue<PendingRegistration> queue = queues.get(Math.floorMod(Long.hashCode(plannedEventId), queues.size()));
+        if (!queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new EventRegistrationAppException(
+                    "Too many registrations are waiting, please try again", HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        // The writer may have stopped while this was being queued; if it is still there, nobody will take it
+        if (stopped && queue.remove(pending)) {
+            return CompletableFuture.failedFuture(shuttingDown());
+        }
+        return pending.result;
+    }
+
+    /**
+     * Helper method to create the error returned for registrations that come in or are left over once stopped
+     */
+    private static EventRegistrationAppException shuttingDown() {
+        return new EventRegistrationAppException("The application is shutting down, please try again",
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Helper method run by the writer of a shard to apply whatever has queued up since its last batch
+     */
+    private void drain(BlockingQueue<PendingRegistration> queue) {
+        List<PendingRegistration> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            batchSizes.record(batch.size());
+            try {
+                apply(batch);
+            } catch (Throwable e) {
+                // Only this batch is lost, the writer keeps going for the registrations queued behind it
+                for (PendingRegistration pending : batch) {
+                    if (!pending.settled) {
+                        fail(pending, e);
+                    }
+                }
+            }
+            batch.clear();
+        }
+        // Nobody is left to apply what is still queued
+        PendingRegistration pending;
+        while ((pending = queue.poll()) != null) {
+            fail(pending, shuttingDown());
+        }
+    }
+
+    /**
+     * Helper method to apply a batch with one transaction, completing the future of each queued registration
+     */
+    private void apply(List<PendingRegistration> batch) {
+        List<Long> plannedEventIds = new ArrayList<>();
+        List<Long> generalUserIds = new ArrayList<>();
+        for (PendingRegistration pending : batch) {
+            plannedEventIds.add(pending.plannedEventId);
+            generalUserIds.add(pending.generalUserId);
+        }
+        List<RegistrationBatchResult> results;
+        try {
+            results = registrationService.createRegistrations(plannedEventIds, generalUserIds);
+        } catch (RuntimeException e) {
+            // A pair registered outside the queue fails the whole batch, so find it by applying them one by one
+            batch.forEach(this::applyOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PendingRegistration pending = batch.get(i);
+            RegistrationBatchResult result = results.get(i);
+            if (result.getRegistration() != null) {
+                complete(pending, RegistrationOutcome.registered(result.getRegistration()));
+            } else if (result.getStatus() == HttpStatus.CONFLICT) {
+                // The planned event is full, so this one goes to the waitlist
+                applyOne(pending);
+            } else {
+                fail(pending, new EventRegistrationAppException(result.getError(), result.getStatus()));
+            }
+        }
+    }
+
+    /**
+     * Helper method to apply a single queued registration in its own transaction
+     */
+    private void applyOne(PendingRegistration pending) {
+        try {
+            complete(pending, registrationService.createRegistrationOrJoinWaitlist(pending.plannedEventId,
+                    pending.generalUserId));
+        } catch (Throwable e) {
+            fail(pending, e);
+        }
+    }
+
+    /**
+     * Helper method to complete the future of a queued registration off the writer thread
+     */
+    private void complete(PendingRegistration pending, RegistrationOutcome outcome) {
+        pending.settled = true;
+        pending.result.completeAsync(() -> outcome, completionExecutor);
+    }
+
+    /**
+     * Helper method to fail the future of a queued registration off the writer thread
+     */
+    private void fail(PendingRegistration pending, Throwable e) {
+        pending.settled = true;
+        completionExecutor.execute(() -> pending.result.completeExceptionally(e));
+    }
+
+    private static final class PendingRegistration {
+
+        private final long plannedEventId;
+        private final long generalUserId;
+        private final CompletableFuture<RegistrationOutcome> result = new CompletableFuture<>();
+        // Only read and written by the writer, once the completion of the future has been handed off
+        private boolean settled;
+
+        private PendingRegistration(long plannedEventId, long generalUserId) {
+            this.plannedEventId = plannedEventId;
+            this.generalUserId = generalUserId;
+        }
+    }
+}
@@ -1,22 +1,46 @@
 package project.event.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import project.event.dao.EventManagerRepository;
 import project.event.dao.GeneralUserRepository;
 import project.event.dao.PlannedEventRepository;
 import project.event.dao.RegistrationRepository;
+import project.event.dao.WaitlistEntryRepository;
 import project.event.exception.EventRegistrationAppException;
 import project.event.model.GeneralUser;
 import project.event.model.PlannedEvent;
 import project.event.model.Registration;
+import project.event.model.WaitlistEntry;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RegistrationService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private RegistrationRepository registrationRepository;
 
@@ -27,51 +51,155 @@ public class RegistrationService {
     private GeneralUserRepository generalUserRepository;
 
     @Autowired
-    private EventManagerRepository eventManagerRepository;
+    private WaitlistEntryRepository waitlistEntryRepository;
 
-    /**
-     * Create a registration for a planned event using objects
-     * @param plannedEvent the planned event to register for
-     * @param generalUser the general user registering
-     * @return the registration created
-     */
-    @Transactional
-    public Registration createRegistration(PlannedEvent plannedEvent, GeneralUser generalUser) {
-        if (generalUser == null) {
-            throw new EventRegistrationAppException("General user must be instantiated", HttpStatus.BAD_REQUEST);
-        }
-        if (plannedEvent == null) {
-            throw new EventRegistrationAppException("Planned event must be instantiated", HttpStatus.BAD_REQUEST);
-        }
-        Registration registration = new Registration(plannedEvent, generalUser);
-        registrationRepository.save(registration);
-        return registration;
-    }
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
 
     /**
-     * Create a registration for a planned event using ids
+     * Create a registration for a planned event, or put the general user on its waitlist if it is full
      * @param plannedEventId the planned event id to register for
      * @param generalUserId the general user id registering
-     * @return the registration created
+     * @return the registration created, or the waitlist entry created along with its position
      */
     @Transactional
-    public Registration createRegistration(int plannedEventId, int generalUserId) {
+    public RegistrationOutcome createRegistrationOrJoinWaitlist(long plannedEventId, long generalUserId) {
         PlannedEvent plannedEvent = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEventId);
         if (plannedEvent == null) {
             throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
         }
         GeneralUser generalUser = generalUserRepository.findGeneralUserByGeneralUserId(generalUserId);
         if (generalUser == null) {
-            // Try to find the user as an event manager
-            generalUser = eventManagerRepository.findEventManagerByGeneralUserId(generalUserId);
-            // Throw error is still not found
-            if (generalUser == null) {
-                throw new EventRegistrationAppException("General user not found", HttpStatus.NOT_FOUND);
+            throw new EventRegistrationAppException("General user not found", HttpStatus.NOT_FOUND);
+        }
+        checkNotRegistered(plannedEvent, generalUser);
+        // Seats freed while people are waiting go to the waitlist, so nobody can jump the queue
+        if (!waitlistEntryRepository.existsByPlannedEventPlannedEventId(plannedEventId)
+                && plannedEventRepository.reserveSeats(plannedEventId, 1) == 1) {
+            applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(plannedEventId));
+            // The response carries the seat counts, so read them again now that the event row is locked
+            entityManager.refresh(plannedEvent);
+            Registration registration = new Registration(plannedEvent, generalUser);
+            saveWithUniquePair(registration);
+            return RegistrationOutcome.registered(registration);
+        }
+        if (waitlistEntryRepository.existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(plannedEventId,
+                generalUserId)) {
+            throw new EventRegistrationAppException("General user is already on the waitlist", HttpStatus.BAD_REQUEST);
+        }
+        // The event row stays locked from here on, so nobody else changes the queue and the last ticket is ours
+        addWaitlistEntries(plannedEventId, 1);
+        entityManager.refresh(plannedEvent);
+        WaitlistEntry waitlistEntry = waitlistEntryRepository.save(new WaitlistEntry(plannedEvent, generalUser,
+                plannedEvent.getWaitlistDequeued() + plannedEvent.getWaitlistCount()));
+        // A seat released by a cancellation that could not see this entry yet would stay free while people wait,
+        // so check again now that the event row is locked
+        for (Registration registration : promoteFromWaitlist(plannedEvent, Limit.of(1))) {
+            if (registration.getGeneralUser().getGeneralUserId() == generalUserId) {
+                return RegistrationOutcome.registered(registration);
             }
         }
-        Registration registration = new Registration(plannedEvent, generalUser);
-        registrationRepository.save(registration);
-        return registration;
+        return RegistrationOutcome.waitlisted(waitlistEntry, getWaitlistPosition(waitlistEntry));
+    }
+
+    /**
+     * Create registrations for many (planned event, general user) pairs in one transaction
+     * @param plannedEventIds the planned event id of each registration
+     * @param generalUserIds the general user id of each registration, in the same order
+     * @return the result of each registration, in the same order
+     */
+    @Transactional
+    public List<RegistrationBatchResult> createRegistrations(List<Long> plannedEventIds, List<Long> generalUserIds) {
+        if (plannedEventIds.size() != generalUserIds.size()) {
+            throw new EventRegistrationAppException("Each registration needs a planned event and a general user",
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (plannedEventIds.size() > MAX_BATCH_SIZE) {
+            throw new EventRegistrationAppException("A batch cannot contain more than " + MAX_BATCH_SIZE +
+                    " registrations", HttpStatus.BAD_REQUEST);
+        }
+        // Resolve every referenced planned event and general user with one query each
+        Map<Long, PlannedEvent> plannedEvents = new HashMap<>();
+        for (PlannedEvent plannedEvent : plannedEventRepository.findByPlannedEventIdIn(
+                plannedEventIds.stream().filter(Objects::nonNull).collect(Collectors.toSet()))) {
+            plannedEvents.put(plannedEvent.getPlannedEventId(), plannedEvent);
+        }
+        Map<Long, GeneralUser> generalUsers = new HashMap<>();
+        for (GeneralUser generalUser : generalUserRepository.findAllById(
+                generalUserIds.stream().filter(Objects::nonNull).collect(Collectors.toSet()))) {
+            generalUsers.put(generalUser.getGeneralUserId(), generalUser);
+        }
+
+        // Find the pairs that are already registered, or that appear more than once in the batch, with one query
+        Set<List<Long>> registeredPairs = new HashSet<>();
+        if (!plannedEvents.isEmpty() && !generalUsers.isEmpty()) {
+            for (Registration registration : registrationRepository.findByPlannedEventIdsAndGeneralUserIds(
+                    plannedEvents.keySet(), generalUsers.keySet())) {
+                registeredPairs.add(List.of(registration.getPlannedEvent().getPlannedEventId(),
+                        registration.getGeneralUser().getGeneralUserId()));
+            }
+        }
+        boolean[] duplicates = new boolean[plannedEventIds.size()];
+        for (int i = 0; i < plannedEventIds.size(); i++) {
+            if (plannedEvents.containsKey(plannedEventIds.get(i)) && generalUsers.containsKey(generalUserIds.get(i))) {
+                duplicates[i] = !registeredPairs.add(List.of(plannedEventIds.get(i), generalUserIds.get(i)));
+            }
+        }
+
+        // Reserve the seats of each planned event with as few updates as possible
+        Map<Long, Integer> seatsWanted = new HashMap<>();
+        for (int i = 0; i < plannedEventIds.size(); i++) {
+            if (plannedEvents.containsKey(plannedEventIds.get(i)) && generalUsers.containsKey(generalUserIds.get(i))
+                    && !duplicates[i]) {
+                seatsWanted.merge(plannedEventIds.get(i), 1, Integer::sum);
+            }
+        }
+        // Seats freed while people are waiting go to the waitlist, so nobody can jump the queue
+        Map<Long, Integer> seatsLeft = new HashMap<>();
+        seatsWanted.forEach((plannedEventId, seats) -> seatsLeft.put(plannedEventId,
+                waitlistEntryRepository.existsByPlannedEventPlannedEventId(plannedEventId) ? 0 :
+                        reserveSeats(plannedEventId, seats)));
+        // The responses carry the seat counts, so read them again for the event rows now locked
+        seatsLeft.forEach((plannedEventId, seats) -> {
+            if (seats > 0) {
+                entityManager.refresh(plannedEvents.get(plannedEventId));
+            }
+        });
+
+        List<RegistrationBatchResult> results = new ArrayList<>();
+        List<Registration> registrations = new ArrayList<>();
+        for (int i = 0; i < plannedEventIds.size(); i++) {
+            Long plannedEventId = plannedEventIds.get(i);
+            Long generalUserId = generalUserIds.get(i);
+            if (plannedEventId == null) {
+                results.add(RegistrationBatchResult.failed("Planned event must be instantiated", HttpStatus.BAD_REQUEST));
+            } else if (generalUserId == null) {
+                results.add(RegistrationBatchResult.failed("General user must be instantiated", HttpStatus.BAD_REQUEST));
+            } else if (!plannedEvents.containsKey(plannedEventId)) {
+                results.add(RegistrationBatchResult.failed("Planned event not found", HttpStatus.NOT_FOUND));
+            } else if (!generalUsers.containsKey(generalUserId)) {
+                results.add(RegistrationBatchResult.failed("General user not found", HttpStatus.NOT_FOUND));
+            } else if (duplicates[i]) {
+                results.add(RegistrationBatchResult.failed("General user is already registered for this planned event",
+                        HttpStatus.BAD_REQUEST));
+            } else if (seatsLeft.merge(plannedEventId, -1, Integer::sum) < 0) {
+                results.add(RegistrationBatchResult.failed("Planned event is full", HttpStatus.CONFLICT));
+            } else {
+                Registration registration = new Registration(plannedEvents.get(plannedEventId),
+                        generalUsers.get(generalUserId));
+                registrations.add(registration);
+                results.add(RegistrationBatchResult.created(registration));
+            }
+        }
+        // The inserts go out in JDBC batches
+        try {
+            registrationRepository.saveAllAndFlush(registrations);
+        } catch (DataIntegrityViolationException e) {
+            // Another request registered one of the pairs since they were checked
+            throw new EventRegistrationAppException("General user is already registered for this planned event",
+                    HttpStatus.BAD_REQUEST);
+        }
+        return results;
     }
 
     /**
@@ -80,7 +208,7 @@ public class RegistrationService {
      * @return true if the registration is deleted
      */
     @Transactional
-    public Boolean deleteRegistration(int registrationId) {
+    public Boolean deleteRegistration(long registrationId) {
         Registration registration = registrationRepository.findRegistrationByRegistrationId(registrationId);
         if (registration == null) {
             throw new EventRegistrationAppException("Registration not found", HttpStatus.NOT_FOUND);
@@ -90,6 +218,62 @@ public class RegistrationService {
         } catch (Exception e) {
             throw new EventRegistrationAppException("Registration could not be deleted", HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        // The seat is released first, which locks the event row, so a waitlist entry committed by then is seen below
+        plannedEventRepository.releaseSeats(registration.getPlannedEvent().getPlannedEventId(), 1);
+        applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(
+                registration.getPlannedEvent().getPlannedEventId()));
+        // The seat goes to the head of the waitlist if there is one
+        promoteFromWaitlist(registration.getPlannedEvent(), Limit.of(1));
+        return true;
+    }
+
+    /**
+     * Get a waitlist entry by its id
+     * @param waitlistEntryId the id of the waitlist entry to be retrieved
+     * @return the waitlist entry
+     */
+    @Transactional
+    public WaitlistEntry getWaitlistEntryById(long waitlistEntryId) {
+        WaitlistEntry waitlistEntry = waitlistEntryRepository.findWaitlistEntryByWaitlistEntryId(waitlistEntryId);
+        if (waitlistEntry == null) {
+            throw new EventRegistrationAppException("Waitlist entry not found", HttpStatus.NOT_FOUND);
+        }
+        return waitlistEntry;
+    }
+
+    /**
+     * Get the position of a waitlist entry in the waitlist of its planned event, from the planned event loaded with it
+     * @param waitlistEntry the waitlist entry
+     * @return the position on the waitlist, starting at 1
+     */
+    public long getWaitlistPosition(WaitlistEntry waitlistEntry) {
+        return waitlistEntry.getTicket() - waitlistEntry.getPlannedEvent().getWaitlistDequeued();
+    }
+
+    /**
+     * Remove a general user from the waitlist of a planned event
+     * NOTE: Every entry behind the one leaving moves up one ticket while the planned event row is locked, so a leave
+     * costs one update per entry behind it; positions are read far more often than people leave, so reads stay O(1)
+     * @param waitlistEntryId the id of the waitlist entry to be deleted
+     * @return true if the waitlist entry is deleted
+     */
+    @Transactional
+    public Boolean deleteWaitlistEntry(long waitlistEntryId) {
+        WaitlistEntry waitlistEntry = waitlistEntryRepository.findWaitlistEntryByWaitlistEntryId(waitlistEntryId);
+        if (waitlistEntry == null) {
+            throw new EventRegistrationAppException("Waitlist entry not found", HttpStatus.NOT_FOUND);
+        }
+        long plannedEventId = waitlistEntry.getPlannedEvent().getPlannedEventId();
+        // The event row is locked first, like for every other change to the queue
+        addWaitlistEntries(plannedEventId, -1);
+        // Leaves ahead of this entry may have moved it up since it was read, so its ticket is read again under the lock
+        try {
+            entityManager.refresh(waitlistEntry);
+        } catch (EntityNotFoundException e) {
+            throw new EventRegistrationAppException("Waitlist entry not found", HttpStatus.NOT_FOUND);
+        }
+        waitlistEntryRepository.delete(waitlistEntry);
+        waitlistEntryRepository.moveUpBehind(plannedEventId, waitlistEntry.getTicket());
         return true;
     }
 
@@ -99,7 +283,7 @@ public class RegistrationService {
      * @return the registration
      */
     @Transactional
-    public Registration getRegistrationById(int registrationId) {
+    public Registration getRegistrationById(long registrationId) {
         Registration registration = registrationRepository.findRegistrationByRegistrationId(registrationId);
         if (registration == null) {
             throw new EventRegistrationAppException("Registration not found", HttpStatus.NOT_FOUND);
@@ -115,4 +299,105 @@ public class RegistrationService {
     public ArrayList<Registration> getAllRegistrations() {
         return new ArrayList<>(registrationRepository.findAll());
     }
+
+    /**
+     * Export all registrations one at a time, without holding them all in memory
+     * @param consumer the consumer receiving each registration
+     */
+    @Transactional
+    public void exportAllRegistrations(Consumer<Registration> consumer) {
+        try (Stream<Registration> registrations = registrationRepository.streamAll()) {
+            Iterator<Registration> iterator = registrations.iterator();
+            int exported = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                // Detach what has been exported so the persistence context does not grow with the table
+                if (++exported % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Register general users from the head of the waitlist of a planned event into its free seats, in queue order
+     * NOTE: The planned event row must already have been written in this transaction, so its lock guards the queue
+     * @param plannedEvent the planned event, whose counters are brought up to date
+     * @param limit the most general users to promote
+     * @return the registrations created, one per general user promoted
+     */
+    @Transactional
+    public List<Registration> promoteFromWaitlist(PlannedEvent plannedEvent, Limit limit) {
+        long plannedEventId = plannedEvent.getPlannedEventId();
+        List<WaitlistEntry> head = waitlistEntryRepository.findHeadForUpdate(plannedEventId, limit);
+        if (head.isEmpty()) {
+            return List.of();
+        }
+        int seats = reserveSeats(plannedEventId, head.size());
+        List<Registration> registrations = new ArrayList<>();
+        for (WaitlistEntry waitlistEntry : head.subList(0, seats)) {
+            waitlistEntryRepository.delete(waitlistEntry);
+            registrations.add(new Registration(plannedEvent, waitlistEntry.getGeneralUser()));
+        }
+        if (!registrations.isEmpty()) {
+            registrationRepository.saveAll(registrations);
+            plannedEventRepository.dequeueWaitlistEntries(plannedEventId, registrations.size());
+            applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(plannedEventId));
+            plannedEvent.setSeatsReserved(plannedEvent.getSeatsReserved() + registrations.size());
+            plannedEvent.setWaitlistCount(Math.max(0, plannedEvent.getWaitlistCount() - registrations.size()));
+            plannedEvent.setWaitlistDequeued(plannedEvent.getWaitlistDequeued() + registrations.size());
+        }
+        return registrations;
+    }
+
+    /**
+     * Helper method to reject a registration the general user already has
+     */
+    private void checkNotRegistered(PlannedEvent plannedEvent, GeneralUser generalUser) {
+        if (registrationRepository.existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(
+                plannedEvent.getPlannedEventId(), generalUser.getGeneralUserId())) {
+            throw new EventRegistrationAppException("General user is already registered for this planned event",
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Helper method to save a registration, relying on the unique index when two requests register the same pair
+     */
+    private void saveWithUniquePair(Registration registration) {
+        try {
+            registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            throw new EventRegistrationAppException("General user is already registered for this planned event",
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Helper method to reserve up to the given number of seats of a planned event
+     * @return the number of seats actually reserved
+     */
+    private int reserveSeats(long plannedEventId, int seats) {
+        int reserved = seats;
+        if (plannedEventRepository.reserveSeats(plannedEventId, seats) == 0) {
+            // Not enough seats for everyone, so take what is left in one update while the event row is locked
+            Integer seatsLeft = plannedEventRepository.findSeatsLeftForUpdate(plannedEventId);
+            reserved = seatsLeft == null ? seats : Math.max(0, Math.min(seats, seatsLeft));
+            if (reserved > 0 && plannedEventRepository.reserveSeats(plannedEventId, reserved) == 0) {
+                reserved = 0;
+            }
+        }
+        if (reserved > 0) {
+            applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(plannedEventId));
+        }
+        return reserved;
+    }
+
+    /**
+     * Helper method to keep the waitlist count of a planned event in step with its waitlist entries
+     */
+    private void addWaitlistEntries(long plannedEventId, int entries) {
+        plannedEventRepository.addWaitlistEntries(plannedEventId, entries);
+        applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(plannedEventId));
+    }
 }
@@ -0,0 +1,134 @@
+package project.event.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.exception.EventRegistrationAppException;
+import project.event.service.ConcurrencyLimiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the registration write path under synthetic overload, with and without the concurrency limiter.
+ * The database is simulated by a pool of connections that each take a fixed time per write, and far more clients
+ * than connections send writes back to back.
+ * Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+public class ConcurrencyLimiterBenchmarkTest {
+
+    private static final int CONNECTIONS = 8;
+    private static final long WRITE_MILLIS = 10;
+    private static final int CLIENTS = 128;
+    private static final Duration TARGET_LATENCY = Duration.ofMillis(50);
+    private static final Duration RUN_TIME = Duration.ofSeconds(5);
+
+    /**
+     * Benchmark the latency of admitted writes when clients overload the connection pool.
+     */
+    @Test
+    public void benchmarkOverload() throws InterruptedException {
+        Result unlimited = run(false);
+        Result limited = run(true);
+
+        System.out.println("Overload without limiter: " + unlimited);
+        System.out.println("Overload with limiter:    " + limited);
+        assertTrue(limited.percentile(0.99) < unlimited.percentile(0.99));
+    }
+
+    /**
+     * Helper method to overload the simulated database for a while and collect the latencies of the writes
+     */
+    private Result run(boolean limiterEnabled) throws InterruptedException {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter();
+        ReflectionTestUtils.setField(concurrencyLimiter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(concurrencyLimiter, "enabled", limiterEnabled);
+        ReflectionTestUtils.setField(concurrencyLimiter, "initialLimit", CONNECTIONS);
+        ReflectionTestUtils.setField(concurrencyLimiter, "minLimit", 2);
+        ReflectionTestUtils.setField(concurrencyLimiter, "maxLimit", CLIENTS);
+        ReflectionTestUtils.setField(concurrencyLimiter, "targetLatency", TARGET_LATENCY);
+        ReflectionTestUtils.setField(concurrencyLimiter, "backoffRatio", 0.9);
+        concurrencyLimiter.start();
+
+        Semaphore connections = new Semaphore(CONNECTIONS, true);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rejected = new AtomicLong();
+        long end = System.nanoTime() + RUN_TIME.toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    try {
+                        concurrencyLimiter.execute("benchmark", () -> write(connections));
+                        latencies.add(System.nanoTime() - start);
+                    } catch (EventRegistrationAppException e) {
+                        // A shed client comes back a little later
+                        rejected.incrementAndGet();
+                        sleep(WRITE_MILLIS);
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(RUN_TIME.toSeconds() + 30, TimeUnit.SECONDS));
+        return new Result(latencies, rejected.get(), concurrencyLimiter.getLimit());
+    }
+
+    /**
+     * Helper method to simulate a write holding a database connection
+     */
+    private boolean write(Semaphore connections) {
+        connections.acquireUninterruptibly();
+        try {
+            sleep(WRITE_MILLIS);
+            return true;
+        } finally {
+            connections.release();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Result {
+
+        private final List<Long> latencies;
+        private final long rejected;
+        private final int limit;
+
+        private Result(List<Long> latencies, long rejected, int limit) {
+            this.latencies = new ArrayList<>(latencies);
+            Collections.sort(this.latencies);
+            this.rejected = rejected;
+            this.limit = limit;
+        }
+
+        private double percentile(double percentile) {
+            return latencies.get((int) Math.min(latencies.size() - 1, latencies.size() * percentile)) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d admitted, %d shed, p50 %.1f ms, p99 %.1f ms, final limit %d",
+                    latencies.size(), rejected, percentile(0.5), percentile(0.99), limit);
+        }
+    }
+}
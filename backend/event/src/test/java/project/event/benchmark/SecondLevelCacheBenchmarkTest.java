@@ -0,0 +1,117 @@
+package project.event.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.event.dao.GeneralUserRepository;
+import project.event.model.EventManager;
+import project.event.model.GeneralUser;
+import project.event.service.EventManagerService;
+import project.event.service.GeneralUserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the SQL run by the user list and lookup endpoints, with the users in the second-level and query caches
+ * or not.
+ * The lists are never cached, so they must stay at one statement per call however many users there are.
+ * The planned event and registration lists fetch their users in the same query, so the caches do not change them.
+ * Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class SecondLevelCacheBenchmarkTest {
+
+    private static final int USERS = 2000;
+    private static final int LOOKUPS = 200;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private GeneralUserService generalUserService;
+
+    @Autowired
+    private EventManagerService eventManagerService;
+
+    @Autowired
+    private GeneralUserRepository generalUserRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    @AfterEach
+    public void clearDatabase() {
+        generalUserRepository.deleteAll();
+    }
+
+    /**
+     * Benchmark listing all general users and event managers, and looking users up by id.
+     */
+    @Test
+    public void benchmarkUserEndpoints() {
+        List<GeneralUser> generalUsers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            generalUsers.add(i % 20 == 0 ? new EventManager("manager" + i) : new GeneralUser("name" + i));
+        }
+        generalUserRepository.saveAll(generalUsers);
+
+        measure("GET /generalUser", 1, () -> generalUserService.getAllGeneralUsers().size());
+        measure("GET /eventManager", 1, () -> eventManagerService.getAllEventManagers().size());
+        measure("GET /generalUser/{id} x " + LOOKUPS, 0, () -> {
+            int found = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                long generalUserId = generalUsers.get(i * (USERS / LOOKUPS)).getGeneralUserId();
+                found += generalUserService.getGeneralUser(generalUserId) == null ? 0 : 1;
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Helper method to run an endpoint with the caches emptied before each run, then with them warm
+     * @param warmStatements the number of statements each call may run with a warm cache
+     */
+    private void measure(String endpoint, int warmStatements, Supplier<Integer> list) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long coldStatements = 0;
+        long coldNanos = 0;
+        for (int i = 0; i < RUNS; i++) {
+            entityManagerFactory.getCache().evictAll();
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+            statistics.clear();
+            long start = System.nanoTime();
+            assertTrue(list.get() > 0);
+            coldNanos += System.nanoTime() - start;
+            coldStatements += statistics.getPrepareStatementCount();
+        }
+
+        list.get();
+        long warmStatementCount = 0;
+        long warmNanos = 0;
+        for (int i = 0; i < RUNS; i++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            assertTrue(list.get() > 0);
+            warmNanos += System.nanoTime() - start;
+            warmStatementCount += statistics.getPrepareStatementCount();
+        }
+
+        System.out.printf("%s: %.1f statements and %.2f ms per call with an empty cache, " +
+                        "%.1f statements and %.2f ms per call with a warm cache%n", endpoint,
+                (double) coldStatements / RUNS, coldNanos / 1_000_000.0 / RUNS,
+                (double) warmStatementCount / RUNS, warmNanos / 1_000_000.0 / RUNS);
+        assertEquals((long) warmStatements * RUNS, warmStatementCount);
+    }
+}
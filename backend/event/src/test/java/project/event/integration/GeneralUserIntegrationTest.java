@@ -7,17 +7,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import project.event.dao.GeneralUserRepository;
+import project.event.dto.GeneralUserImportResponseDto;
 import project.event.dto.GeneralUserRequestDto;
 import project.event.dto.GeneralUserResponseDto;
+import project.event.service.RateLimiter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class GeneralUserIntegrationTest {
@@ -28,10 +36,15 @@ public class GeneralUserIntegrationTest {
     @Autowired
     private GeneralUserRepository generalUserRepository;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
     @BeforeEach
     @AfterEach
     public void clearDatabase() {
         generalUserRepository.deleteAll();
+        // Every request comes from the same address, so a test draining a bucket would slow down the next ones
+        rateLimiter.createCache();
     }
 
     /**
@@ -140,5 +153,117 @@ public class GeneralUserIntegrationTest {
                 generalUserResponseDto.getGeneralUserId()).getGeneralUserId());
     }
 
+    /**
+     * Test to import GeneralUser objects from CSV.
+     */
+    @Test
+    public void testImportGeneralUsers() {
+        // Create all necessary objects
+        createGeneralUser();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        String csv = "name\nuser\nuser1\nuser2\nuser1\n";
+
+        // Import the users
+        ResponseEntity<GeneralUserImportResponseDto> response = assignmentClient.postForEntity(
+                "/generalUser/import", new HttpEntity<>(csv, headers), GeneralUserImportResponseDto.class);
+
+        // Check the response
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getCreated());
+        assertEquals(2, response.getBody().getDuplicates());
+        assertEquals(0, response.getBody().getInvalid());
+        assertEquals(3, generalUserRepository.count());
+        assertTrue(generalUserRepository.existsByName("user2"));
+    }
+
+    /**
+     * Test that a general user updated too often is told to slow down.
+     */
+    @Test
+    public void testUpdateGeneralUserRateLimited() {
+        // Create all necessary objects
+        GeneralUserResponseDto generalUserResponseDto = createGeneralUser();
+
+        // Update faster than the bucket of the client refills until it runs out
+        ResponseEntity<String> response = null;
+        for (int i = 0; i < 200; i++) {
+            response = assignmentClient.exchange("/generalUser/" + generalUserResponseDto.getGeneralUserId(),
+                    HttpMethod.PUT, new HttpEntity<>(new GeneralUserRequestDto("user" + i)), String.class);
+            if (response.getStatusCode() != HttpStatus.OK) {
+                break;
+            }
+        }
+
+        // Check the response
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    /**
+     * Test that a client updating a different general user each time is still told to slow down.
+     */
+    @Test
+    public void testUpdateGeneralUserRotatingIdsRateLimited() {
+        // Create all necessary objects
+        GeneralUserResponseDto generalUserResponseDto = createGeneralUser();
+
+        // Send each update for another id, which would get a fresh bucket if the limit were kept per general user
+        ResponseEntity<String> response = null;
+        int requests = 0;
+        while (requests < 200) {
+            response = assignmentClient.exchange("/generalUser/" + (generalUserResponseDto.getGeneralUserId() + requests),
+                    HttpMethod.PUT, new HttpEntity<>(new GeneralUserRequestDto("user" + requests)), String.class);
+            requests++;
+            if (response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                break;
+            }
+        }
+
+        // Check the response
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertTrue(requests < 200);
+    }
+
+    /**
+     * Test that clients behind the same trusted proxy are told apart by X-Forwarded-For, each with its own limit.
+     */
+    @Test
+    public void testUpdateGeneralUserForwardedClientsRateLimitedSeparately() {
+        // Create all necessary objects
+        GeneralUserResponseDto generalUserResponseDto = createGeneralUser();
+        String url = "/generalUser/" + generalUserResponseDto.getGeneralUserId();
+
+        // The test client connects from loopback, a trusted proxy, so the forwarded address is the client's
+        HttpHeaders firstClient = new HttpHeaders();
+        firstClient.set("X-Forwarded-For", "203.0.113.1");
+        ResponseEntity<String> response = null;
+        int requests = 0;
+        while (requests < 200) {
+            response = assignmentClient.exchange(url, HttpMethod.PUT,
+                    new HttpEntity<>(new GeneralUserRequestDto("user" + requests), firstClient), String.class);
+            requests++;
+            if (response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                break;
+            }
+        }
+        HttpHeaders secondClient = new HttpHeaders();
+        secondClient.set("X-Forwarded-For", "203.0.113.2");
+        // A shared bucket would have at most a token or so left, so several requests in a row tell the two apart
+        List<HttpStatusCode> otherStatuses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            otherStatuses.add(assignmentClient.exchange(url, HttpMethod.PUT,
+                    new HttpEntity<>(new GeneralUserRequestDto("other" + i), secondClient), String.class).getStatusCode());
+        }
 
+        // Check the responses
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertTrue(requests < 200);
+        assertEquals(List.of(HttpStatus.OK, HttpStatus.OK, HttpStatus.OK, HttpStatus.OK, HttpStatus.OK), otherStatuses);
+    }
 }
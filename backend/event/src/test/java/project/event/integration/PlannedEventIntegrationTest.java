@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,10 +16,16 @@ import project.event.dao.EventManagerRepository;
 import project.event.dao.PlannedEventRepository;
 import project.event.dto.*;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class PlannedEventIntegrationTest {
@@ -174,7 +182,7 @@ public class PlannedEventIntegrationTest {
 
         // Retrieving all PlannedEvents
         ResponseEntity<List<PlannedEventResponseDto>> response = assignmentClient.exchange(
-                "/plannedEvent/", HttpMethod.GET, null,
+                "/plannedEvent/?all=true", HttpMethod.GET, null,
                 new ParameterizedTypeReference<List<PlannedEventResponseDto>>() {});
 
         // Checking the response
@@ -187,4 +195,145 @@ public class PlannedEventIntegrationTest {
         assertEquals(plannedEventResponseDto.getEventId(), plannedEventRepository.findPlannedEventByPlannedEventId(
                 plannedEventResponseDto.getEventId()).getPlannedEventId());
     }
+
+    /**
+     * Test the retrieval of PlannedEvent objects one page at a time.
+     */
+    @Test
+    public void testGetPlannedEventsPage() {
+        // Creating all necessary objects
+        EventManagerResponseDto eventManagerResponseDto = createEventManager();
+        int year = LocalDate.now().getYear() + 1;
+        for (int day = 1; day <= 3; day++) {
+            PlannedEventRequestDto plannedEventRequestDto = new PlannedEventRequestDto(
+                    eventManagerResponseDto, "event" + day, "description", "location", year, 5, day);
+            assignmentClient.postForEntity("/plannedEvent", plannedEventRequestDto, PlannedEventResponseDto.class);
+        }
+
+        // Retrieving the first page
+        ResponseEntity<PlannedEventPageResponseDto> response = assignmentClient.getForEntity(
+                "/plannedEvent?limit=2", PlannedEventPageResponseDto.class);
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getPlannedEvents().size());
+        assertEquals("event1", response.getBody().getPlannedEvents().get(0).getEventName());
+        assertEquals("event2", response.getBody().getPlannedEvents().get(1).getEventName());
+        assertNotNull(response.getBody().getNextCursor());
+
+        // Retrieving the last page with the cursor
+        response = assignmentClient.getForEntity(
+                "/plannedEvent?limit=2&cursor=" + response.getBody().getNextCursor(), PlannedEventPageResponseDto.class);
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getPlannedEvents().size());
+        assertEquals("event3", response.getBody().getPlannedEvents().get(0).getEventName());
+        assertNull(response.getBody().getNextCursor());
+    }
+
+    /**
+     * Test the retrieval of the PlannedEvent objects taking place in the next few weeks.
+     */
+    @Test
+    public void testGetUpcomingPlannedEvents() {
+        // Creating one event next week and one in two months
+        EventManagerResponseDto eventManagerResponseDto = createEventManager();
+        LocalDate nextWeek = LocalDate.now().plusWeeks(1);
+        LocalDate inTwoMonths = LocalDate.now().plusMonths(2);
+        for (LocalDate date : List.of(nextWeek, inTwoMonths)) {
+            PlannedEventRequestDto plannedEventRequestDto = new PlannedEventRequestDto(
+                    eventManagerResponseDto, "event" + date, "description", "location",
+                    date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+            assignmentClient.postForEntity("/plannedEvent", plannedEventRequestDto, PlannedEventResponseDto.class);
+        }
+
+        // Only the event within the next four weeks is returned
+        ResponseEntity<PlannedEventPageResponseDto> response = assignmentClient.getForEntity(
+                "/plannedEvent/upcoming?days=28", PlannedEventPageResponseDto.class);
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getPlannedEvents().size());
+        assertEquals("event" + nextWeek, response.getBody().getPlannedEvents().get(0).getEventName());
+        assertNull(response.getBody().getNextCursor());
+
+        // Both events are returned for an explicit range covering them
+        response = assignmentClient.getForEntity(
+                "/plannedEvent?from=" + nextWeek + "&to=" + inTwoMonths, PlannedEventPageResponseDto.class);
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getPlannedEvents().size());
+    }
+
+    /**
+     * Test that retrying the creation of a PlannedEvent with the same idempotency key does not create it twice.
+     */
+    @Test
+    public void testCreatePlannedEventIdempotent() throws Exception {
+        EventManagerResponseDto eventManagerResponseDto = createEventManager();
+        int year = LocalDate.now().getYear() + 1;
+        PlannedEventRequestDto plannedEventRequestDto = new PlannedEventRequestDto(
+                eventManagerResponseDto, "event", "description", "location", year, 5, 1);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "create-event-1");
+
+        // Concurrent retries all get the response of the single request that ran
+        List<Future<ResponseEntity<PlannedEventResponseDto>>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> assignmentClient.postForEntity("/plannedEvent",
+                        new HttpEntity<>(plannedEventRequestDto, headers), PlannedEventResponseDto.class)));
+            }
+            long eventId = futures.get(0).get().getBody().getEventId();
+            for (Future<ResponseEntity<PlannedEventResponseDto>> future : futures) {
+                ResponseEntity<PlannedEventResponseDto> response = future.get();
+                assertEquals(HttpStatus.CREATED, response.getStatusCode());
+                assertNotNull(response.getBody());
+                assertEquals(eventId, response.getBody().getEventId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, plannedEventRepository.count());
+
+        // The same key cannot be reused for a different request
+        PlannedEventRequestDto otherRequestDto = new PlannedEventRequestDto(
+                eventManagerResponseDto, "other", "description", "location", year, 5, 1);
+        ResponseEntity<String> response = assignmentClient.postForEntity("/plannedEvent",
+                new HttpEntity<>(otherRequestDto, headers), String.class);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(1, plannedEventRepository.count());
+    }
+
+    /**
+     * Test that a cached PlannedEvent is shown with the changes made to it and to its EventManager.
+     */
+    @Test
+    public void testGetPlannedEventAfterChanges() {
+        EventManagerResponseDto eventManagerResponseDto = createEventManager();
+        int year = LocalDate.now().getYear() + 1;
+        PlannedEventResponseDto plannedEventResponseDto = assignmentClient.postForObject("/plannedEvent",
+                new PlannedEventRequestDto(eventManagerResponseDto, "event", "description", "location", year, 5, 1),
+                PlannedEventResponseDto.class);
+        String url = "/plannedEvent/" + plannedEventResponseDto.getEventId();
+        assertEquals("event", assignmentClient.getForObject(url, PlannedEventResponseDto.class).getEventName());
+
+        // Update the event, then rename its manager
+        assignmentClient.put(url, new PlannedEventRequestDto(
+                eventManagerResponseDto, "renamed", "description", "location", year, 5, 1));
+        PlannedEventResponseDto response = assignmentClient.getForObject(url, PlannedEventResponseDto.class);
+        assertEquals("renamed", response.getEventName());
+        assertEquals(plannedEventResponseDto.getVersion() + 1, response.getVersion());
+        assignmentClient.put("/eventManager/" + eventManagerResponseDto.getGeneralUserId(),
+                new EventManagerRequestDto("other manager"));
+        response = assignmentClient.getForObject(url, PlannedEventResponseDto.class);
+        assertEquals("other manager", response.getEventManager().getName());
+
+        // A deleted event is not found anymore
+        assignmentClient.delete(url);
+        assertEquals(HttpStatus.NOT_FOUND, assignmentClient.getForEntity(url, String.class).getStatusCode());
+    }
 }
@@ -1,5 +1,6 @@
 package project.event.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,17 +8,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import project.event.dao.*;
 import project.event.dto.*;
+import project.event.model.EventManager;
 import project.event.model.GeneralUser;
+import project.event.model.PlannedEvent;
+import project.event.model.Registration;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class RegistrationIntegrationTest {
@@ -37,9 +46,16 @@ public class RegistrationIntegrationTest {
     @Autowired
     private EventManagerRepository eventManagerRepository;
 
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @BeforeEach
     @AfterEach
     public void clearDatabase() {
+        waitlistEntryRepository.deleteAll();
         registrationRepository.deleteAll();
         plannedEventRepository.deleteAll();
         eventManagerRepository.deleteAll();
@@ -195,4 +211,214 @@ public class RegistrationIntegrationTest {
         assertEquals(registrationResponseDto.getRegistrationId(), registrationRepository.findRegistrationByRegistrationId(
                 registrationResponseDto.getRegistrationId()).getRegistrationId());
     }
+
+    /**
+     * Test the streaming export of all Registration objects as newline-delimited JSON.
+     */
+    @Test
+    void testExportRegistrations() throws Exception {
+        // Creating all the necessary objects
+        EventManager eventManager = eventManagerRepository.save(new EventManager("manager"));
+        for (int i = 0; i < 2; i++) {
+            GeneralUser generalUser = generalUserRepository.save(new GeneralUser("user" + i));
+            PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event" + i,
+                    "description", "location", LocalDate.now().plusYears(1)));
+            registrationRepository.save(new Registration(plannedEvent, generalUser));
+        }
+
+        // Exporting all registrations
+        ResponseEntity<String> response = assignmentClient.getForEntity("/registration/export", String.class);
+
+        // Check the response
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = response.getBody().split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            RegistrationResponseDto registrationResponseDto = objectMapper.readValue(line, RegistrationResponseDto.class);
+            assertNotNull(registrationRepository.findRegistrationByRegistrationId(
+                    registrationResponseDto.getRegistrationId()));
+            assertEquals(eventManager.getGeneralUserId(),
+                    registrationResponseDto.getPlannedEvent().getEventManager().getGeneralUserId());
+        }
+    }
+
+    /**
+     * Test the creation of many Registration objects in one batch.
+     */
+    @Test
+    void testCreateRegistrations() {
+        // Creating all the necessary objects
+        EventManager eventManager = eventManagerRepository.save(new EventManager("manager"));
+        List<RegistrationRequestDto> registrationRequestDtos = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            GeneralUser generalUser = generalUserRepository.save(new GeneralUser("user" + i));
+            PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event" + i,
+                    "description", "location", LocalDate.now().plusYears(1)));
+            registrationRequestDtos.add(new RegistrationRequestDto(
+                    new PlannedEventResponseDto(null, null, null, null, 0, 0, 0, plannedEvent.getPlannedEventId(),
+                            null, 0, 0, 0),
+                    new GeneralUserResponseDto(null, generalUser.getGeneralUserId())));
+        }
+        registrationRequestDtos.add(new RegistrationRequestDto(
+                new PlannedEventResponseDto(null, null, null, null, 0, 0, 0, -1, null, 0, 0, 0),
+                new GeneralUserResponseDto(null, eventManager.getGeneralUserId())));
+
+        // Creating the registrations
+        ResponseEntity<List<RegistrationBatchItemResponseDto>> response = assignmentClient.exchange(
+                "/registration/batch", HttpMethod.POST, new HttpEntity<>(registrationRequestDtos),
+                new ParameterizedTypeReference<List<RegistrationBatchItemResponseDto>>() {});
+
+        // Check the response
+        assertNotNull(response);
+        assertNotNull(response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().size());
+        for (int i = 0; i < 2; i++) {
+            RegistrationBatchItemResponseDto item = response.getBody().get(i);
+            assertEquals(HttpStatus.CREATED.value(), item.getStatus());
+            assertNotNull(registrationRepository.findRegistrationByRegistrationId(
+                    item.getRegistration().getRegistrationId()));
+        }
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getBody().get(2).getStatus());
+        assertEquals("Planned event not found", response.getBody().get(2).getError());
+        assertEquals(2, registrationRepository.findAll().size());
+    }
+
+    /**
+     * Test that registering for a full PlannedEvent puts the user on the waitlist, and that a cancellation promotes them.
+     */
+    @Test
+    public void testWaitlistPromotion() {
+        // Creating an event with a single seat, and two users wanting it
+        EventManagerResponseDto eventManagerResponseDto = createEventManager();
+        LocalDate date = LocalDate.now().plusYears(1);
+        PlannedEventRequestDto plannedEventRequestDto = new PlannedEventRequestDto(eventManagerResponseDto, "event",
+                "description", "location", date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth(), 1);
+        PlannedEventResponseDto plannedEventResponseDto = assignmentClient.postForEntity(
+                "/plannedEvent", plannedEventRequestDto, PlannedEventResponseDto.class).getBody();
+        assertNotNull(plannedEventResponseDto);
+        GeneralUserResponseDto firstUser = assignmentClient.postForEntity(
+                "/generalUser", new GeneralUserRequestDto("first"), GeneralUserResponseDto.class).getBody();
+        GeneralUserResponseDto secondUser = assignmentClient.postForEntity(
+                "/generalUser", new GeneralUserRequestDto("second"), GeneralUserResponseDto.class).getBody();
+
+        // The first user gets the seat
+        ResponseEntity<RegistrationResponseDto> registered = assignmentClient.postForEntity("/registration",
+                new RegistrationRequestDto(plannedEventResponseDto, firstUser), RegistrationResponseDto.class);
+        assertEquals(HttpStatus.CREATED, registered.getStatusCode());
+        assertNotNull(registered.getBody());
+        assertEquals(1, registered.getBody().getPlannedEvent().getCapacity());
+        assertEquals(1, registered.getBody().getPlannedEvent().getSeatsReserved());
+
+        // The second user lands on the waitlist
+        ResponseEntity<WaitlistEntryResponseDto> waitlisted = assignmentClient.postForEntity("/registration",
+                new RegistrationRequestDto(plannedEventResponseDto, secondUser), WaitlistEntryResponseDto.class);
+        assertEquals(HttpStatus.ACCEPTED, waitlisted.getStatusCode());
+        assertNotNull(waitlisted.getBody());
+        assertEquals(1, waitlisted.getBody().getPosition());
+        assertEquals(plannedEventResponseDto.getEventId(), waitlisted.getBody().getEventId());
+
+        // Cancelling the first registration hands the seat to the second user
+        assignmentClient.delete("/registration/" + registered.getBody().getRegistrationId());
+        ResponseEntity<String> waitlistEntry = assignmentClient.getForEntity(
+                "/registration/waitlist/" + waitlisted.getBody().getWaitlistEntryId(), String.class);
+        assertEquals(HttpStatus.NOT_FOUND, waitlistEntry.getStatusCode());
+        List<Registration> registrations = new ArrayList<>();
+        registrationRepository.findAll().forEach(registrations::add);
+        assertEquals(1, registrations.size());
+        assertEquals(secondUser.getGeneralUserId(), registrations.get(0).getGeneralUser().getGeneralUserId());
+        assertEquals(1, plannedEventRepository.findPlannedEventByPlannedEventId(
+                plannedEventResponseDto.getEventId()).getSeatsReserved());
+    }
+
+    /**
+     * Test that raising the capacity of a PlannedEvent, then removing it, registers the users on its waitlist.
+     */
+    @Test
+    public void testCapacityIncreasePromotesWaitlist() {
+        // Creating an event with a single seat, and three users wanting it
+        EventManagerResponseDto eventManagerResponseDto = createEventManager();
+        LocalDate date = LocalDate.now().plusYears(1);
+        PlannedEventRequestDto plannedEventRequestDto = new PlannedEventRequestDto(eventManagerResponseDto, "event",
+                "description", "location", date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth(), 1);
+        PlannedEventResponseDto plannedEventResponseDto = assignmentClient.postForEntity(
+                "/plannedEvent", plannedEventRequestDto, PlannedEventResponseDto.class).getBody();
+        assertNotNull(plannedEventResponseDto);
+        for (String name : List.of("first", "second", "third")) {
+            GeneralUserResponseDto generalUser = assignmentClient.postForEntity(
+                    "/generalUser", new GeneralUserRequestDto(name), GeneralUserResponseDto.class).getBody();
+            assignmentClient.postForEntity("/registration",
+                    new RegistrationRequestDto(plannedEventResponseDto, generalUser), String.class);
+        }
+        String url = "/plannedEvent/" + plannedEventResponseDto.getEventId();
+        assertEquals(2, assignmentClient.getForObject(url + "/stats", PlannedEventStatsResponseDto.class)
+                .getWaitlistCount());
+
+        // One more seat goes to the head of the waitlist
+        assignmentClient.put(url, new PlannedEventRequestDto(eventManagerResponseDto, "event", "description",
+                "location", date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth(), 2));
+        PlannedEventStatsResponseDto stats = assignmentClient.getForObject(url + "/stats",
+                PlannedEventStatsResponseDto.class);
+        assertEquals(2, stats.getRegistrationCount());
+        assertEquals(1, stats.getWaitlistCount());
+
+        // No limit at all registers everyone left
+        assignmentClient.put(url, new PlannedEventRequestDto(eventManagerResponseDto, "event", "description",
+                "location", date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth(), null));
+        stats = assignmentClient.getForObject(url + "/stats", PlannedEventStatsResponseDto.class);
+        assertEquals(3, stats.getRegistrationCount());
+        assertEquals(0, stats.getWaitlistCount());
+        assertNull(stats.getSeatsLeft());
+        assertEquals(3, registrationRepository.findAll().size());
+    }
+
+    /**
+     * Test that the stats of a PlannedEvent follow its registrations and waitlist.
+     */
+    @Test
+    public void testGetPlannedEventStats() {
+        // Creating an event with a single seat, and three users wanting it
+        EventManagerResponseDto eventManagerResponseDto = createEventManager();
+        LocalDate date = LocalDate.now().plusYears(1);
+        PlannedEventRequestDto plannedEventRequestDto = new PlannedEventRequestDto(eventManagerResponseDto, "event",
+                "description", "location", date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth(), 1);
+        PlannedEventResponseDto plannedEventResponseDto = assignmentClient.postForEntity(
+                "/plannedEvent", plannedEventRequestDto, PlannedEventResponseDto.class).getBody();
+        assertNotNull(plannedEventResponseDto);
+        String statsUrl = "/plannedEvent/" + plannedEventResponseDto.getEventId() + "/stats";
+        PlannedEventStatsResponseDto stats = assignmentClient.getForObject(statsUrl, PlannedEventStatsResponseDto.class);
+        assertEquals(0, stats.getRegistrationCount());
+        assertEquals(1, stats.getSeatsLeft());
+        assertEquals(0, stats.getWaitlistCount());
+
+        List<ResponseEntity<String>> responses = new ArrayList<>();
+        for (String name : List.of("first", "second", "third")) {
+            GeneralUserResponseDto generalUser = assignmentClient.postForEntity(
+                    "/generalUser", new GeneralUserRequestDto(name), GeneralUserResponseDto.class).getBody();
+            responses.add(assignmentClient.postForEntity("/registration",
+                    new RegistrationRequestDto(plannedEventResponseDto, generalUser), String.class));
+        }
+        stats = assignmentClient.getForObject(statsUrl, PlannedEventStatsResponseDto.class);
+        assertEquals(plannedEventResponseDto.getEventId(), stats.getEventId());
+        assertEquals(1, stats.getCapacity());
+        assertEquals(1, stats.getRegistrationCount());
+        assertEquals(0, stats.getSeatsLeft());
+        assertEquals(2, stats.getWaitlistCount());
+        assertEquals(2, assignmentClient.getForObject("/plannedEvent/" + plannedEventResponseDto.getEventId(),
+                PlannedEventResponseDto.class).getWaitlistCount());
+
+        // Leaving the waitlist and cancelling the registration, which promotes the other waiting user
+        long registrationId = registrationRepository.findAll().iterator().next().getRegistrationId();
+        long waitlistEntryId = waitlistEntryRepository.findAll().iterator().next().getWaitlistEntryId();
+        assignmentClient.delete("/registration/waitlist/" + waitlistEntryId);
+        assignmentClient.delete("/registration/" + registrationId);
+        stats = assignmentClient.getForObject(statsUrl, PlannedEventStatsResponseDto.class);
+        assertEquals(1, stats.getRegistrationCount());
+        assertEquals(0, stats.getWaitlistCount());
+        assertEquals(HttpStatus.NOT_FOUND, assignmentClient.getForEntity(
+                "/plannedEvent/" + (plannedEventResponseDto.getEventId() + 1000) + "/stats", String.class).getStatusCode());
+    }
 }
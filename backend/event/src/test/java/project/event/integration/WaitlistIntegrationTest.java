@@ -0,0 +1,101 @@
+package project.event.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import project.event.dao.*;
+import project.event.model.EventManager;
+import project.event.model.GeneralUser;
+import project.event.model.PlannedEvent;
+import project.event.model.WaitlistEntry;
+import project.event.service.RegistrationService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+public class WaitlistIntegrationTest {
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @SpyBean
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private PlannedEventRepository plannedEventRepository;
+
+    @Autowired
+    private EventManagerRepository eventManagerRepository;
+
+    @Autowired
+    private GeneralUserRepository generalUserRepository;
+
+    @BeforeEach
+    @AfterEach
+    public void clearDatabase() {
+        waitlistEntryRepository.deleteAll();
+        registrationRepository.deleteAll();
+        plannedEventRepository.deleteAll();
+        eventManagerRepository.deleteAll();
+        generalUserRepository.deleteAll();
+    }
+
+    /**
+     * Test that two general users leaving the waitlist at the same time leave the tickets behind them contiguous,
+     * when the one ahead commits after the one behind has read its entry
+     */
+    @Test
+    public void testConcurrentWaitlistLeaves() throws Exception {
+        EventManager eventManager = eventManagerRepository.save(new EventManager("manager"));
+        PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event", "description",
+                "location", LocalDate.now().plusDays(7), 1));
+        long plannedEventId = plannedEvent.getPlannedEventId();
+        List<Long> waitlistEntryIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            GeneralUser generalUser = generalUserRepository.save(new GeneralUser("user" + i));
+            WaitlistEntry waitlistEntry = registrationService.createRegistrationOrJoinWaitlist(plannedEventId,
+                    generalUser.getGeneralUserId()).getWaitlistEntry();
+            if (waitlistEntry != null) {
+                waitlistEntryIds.add(waitlistEntry.getWaitlistEntryId());
+            }
+        }
+        long first = waitlistEntryIds.get(0);
+        long second = waitlistEntryIds.get(1);
+        long last = waitlistEntryIds.get(2);
+        // The first general user leaves right after the second one has read its entry, before it locks the event
+        doAnswer((invocation) -> {
+            // Read through the entity manager of the leave in progress, since the spied repository has no real method to call
+            WaitlistEntry waitlistEntry = entityManager.find(WaitlistEntry.class, second);
+            CompletableFuture.runAsync(() -> registrationService.deleteWaitlistEntry(first)).get(10, TimeUnit.SECONDS);
+            return waitlistEntry;
+        }).when(waitlistEntryRepository).findWaitlistEntryByWaitlistEntryId(eq(second));
+
+        assertTrue(registrationService.deleteWaitlistEntry(second));
+
+        WaitlistEntry remaining = registrationService.getWaitlistEntryById(last);
+        assertEquals(1, waitlistEntryRepository.count());
+        assertEquals(1, remaining.getTicket());
+        assertEquals(1, registrationService.getWaitlistPosition(remaining));
+        assertEquals(1, plannedEventRepository.findPlannedEventByPlannedEventId(plannedEventId).getWaitlistCount());
+    }
+}
@@ -1,5 +1,8 @@
 package project.event.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,14 +15,20 @@ import java.util.Calendar;
 import java.util.GregorianCalendar;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class GeneralUserRepositoryTest {
 
     @Autowired
     private GeneralUserRepository generalUserRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     @AfterEach
     public void clearDatabase() {
@@ -46,4 +55,61 @@ public class GeneralUserRepositoryTest {
         assertEquals(generated.getGeneralUserId(), returned.getGeneralUserId());
         assertEquals(generated.getName(), returned.getName());
     }
+
+    /**
+     * Test the name existence check, which also covers event managers.
+     */
+    @Test
+    public void testExistsByName() {
+
+        generalUserRepository.save(new GeneralUser("name"));
+        generalUserRepository.save(new EventManager("manager"));
+
+        assertTrue(generalUserRepository.existsByName("name"));
+        assertTrue(generalUserRepository.existsByName("manager"));
+        assertFalse(generalUserRepository.existsByName("other"));
+    }
+
+    /**
+     * Test that looking up the same user again is answered by the second-level and query caches.
+     */
+    @Test
+    public void testLookupCached() {
+
+        GeneralUser generated = generalUserRepository.save(new EventManager("manager"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        GeneralUser first = generalUserRepository.findGeneralUserByGeneralUserId(generated.getGeneralUserId());
+        GeneralUser second = generalUserRepository.findGeneralUserByGeneralUserId(generated.getGeneralUserId());
+
+        assertEquals("manager", first.getName());
+        assertEquals("manager", second.getName());
+        assertTrue(second instanceof EventManager);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    /**
+     * Test that cached lookups see a user renamed or deleted since they were cached.
+     */
+    @Test
+    public void testLookupCachedAfterWrites() {
+
+        GeneralUser generated = generalUserRepository.save(new GeneralUser("name"));
+        assertTrue(generalUserRepository.existsByName("name"));
+        GeneralUser cached = generalUserRepository.findGeneralUserByGeneralUserId(generated.getGeneralUserId());
+
+        cached.setName("renamed");
+        generalUserRepository.save(cached);
+
+        assertEquals("renamed", generalUserRepository.findGeneralUserByGeneralUserId(
+                generated.getGeneralUserId()).getName());
+        assertFalse(generalUserRepository.existsByName("name"));
+
+        generalUserRepository.delete(cached);
+
+        assertNull(generalUserRepository.findGeneralUserByGeneralUserId(generated.getGeneralUserId()));
+        assertFalse(generalUserRepository.existsByName("renamed"));
+    }
 }
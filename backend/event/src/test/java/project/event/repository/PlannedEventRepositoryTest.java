@@ -5,14 +5,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import project.event.model.*;
 import project.event.dao.*;
 
-import java.util.Calendar;
-import java.util.GregorianCalendar;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 public class PlannedEventRepositoryTest {
@@ -39,9 +49,9 @@ public class PlannedEventRepositoryTest {
         EventManager eventManager = new EventManager("nameM");
         EventManager generatedEventManager = eventManagerRepository.save(eventManager);
 
-        GregorianCalendar calendar = new GregorianCalendar(2021, Calendar.MAY, 1);
+        LocalDate date = LocalDate.of(2021, Month.MAY, 1);
         PlannedEvent plannedEvent = new PlannedEvent(generatedEventManager, "event", "description", "location",
-                calendar);
+                date);
         PlannedEvent generated = plannedEventRepository.save(plannedEvent);
 
         PlannedEvent returned = plannedEventRepository.findPlannedEventByPlannedEventId(generated.getPlannedEventId());
@@ -53,7 +63,7 @@ public class PlannedEventRepositoryTest {
         assertEquals("event", returned.getEventName());
         assertEquals("description", returned.getDescription());
         assertEquals("location", returned.getLocation());
-        assertEquals(calendar, returned.getDate());
+        assertEquals(date, returned.getDate());
 
         // Check post-save data
         assertEquals(generated.getPlannedEventId(), returned.getPlannedEventId());
@@ -63,4 +73,102 @@ public class PlannedEventRepositoryTest {
         assertEquals(generated.getLocation(), returned.getLocation());
         assertEquals(generated.getDate(), returned.getDate());
     }
+
+    /**
+     * Test reading the planned events between two dates, page by page
+     */
+    @Test
+    public void testReadPlannedEventsBetweenDates() {
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        for (int day = 1; day <= 5; day++) {
+            plannedEventRepository.save(new PlannedEvent(eventManager, "event" + day, "description", "location",
+                    LocalDate.of(2021, Month.MAY, day)));
+        }
+        LocalDate from = LocalDate.of(2021, Month.MAY, 2);
+        LocalDate to = LocalDate.of(2021, Month.MAY, 4);
+
+        List<PlannedEvent> firstPage = plannedEventRepository.findFirstPageBetween(from, to, Limit.of(2));
+        assertEquals(2, firstPage.size());
+        assertEquals("event2", firstPage.get(0).getEventName());
+        assertEquals("event3", firstPage.get(1).getEventName());
+
+        PlannedEvent last = firstPage.get(1);
+        List<PlannedEvent> secondPage = plannedEventRepository.findPageBetweenAfter(from, to, last.getDate(),
+                last.getPlannedEventId(), Limit.of(2));
+        assertEquals(1, secondPage.size());
+        assertEquals("event4", secondPage.get(0).getEventName());
+        assertEquals("nameM", secondPage.get(0).getEventManager().getName());
+    }
+
+    /**
+     * Test that many concurrent seat reservations for the same planned event never go over its capacity
+     */
+    @Test
+    public void testReserveSeatsConcurrently() throws Exception {
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event", "description",
+                "location", LocalDate.of(2021, Month.MAY, 1), 100));
+        long plannedEventId = plannedEvent.getPlannedEventId();
+
+        int attempts = 2000;
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                futures.add(executor.submit(() -> reserved.addAndGet(plannedEventRepository.reserveSeats(plannedEventId, 1))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(100, reserved.get());
+        assertEquals(100, plannedEventRepository.findPlannedEventByPlannedEventId(plannedEventId).getSeatsReserved());
+
+        // Releasing a seat makes it available again, but never twice
+        assertEquals(1, plannedEventRepository.releaseSeats(plannedEventId, 1));
+        assertEquals(1, plannedEventRepository.reserveSeats(plannedEventId, 1));
+        assertEquals(0, plannedEventRepository.reserveSeats(plannedEventId, 1));
+    }
+
+    /**
+     * Test that the seats left of a planned event are read from its capacity and seat counter
+     */
+    @Test
+    public void testFindSeatsLeftForUpdate() {
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event", "description",
+                "location", LocalDate.of(2021, Month.MAY, 1), 10));
+        long plannedEventId = plannedEvent.getPlannedEventId();
+        assertEquals(1, plannedEventRepository.reserveSeats(plannedEventId, 3));
+
+        assertEquals(7, plannedEventRepository.findSeatsLeftForUpdate(plannedEventId));
+        assertEquals(1, plannedEventRepository.updateCapacity(plannedEventId, null));
+        assertNull(plannedEventRepository.findSeatsLeftForUpdate(plannedEventId));
+    }
+
+    /**
+     * Test that saving a planned event read before someone else's edit is rejected instead of overwriting it
+     */
+    @Test
+    public void testConcurrentEditsOfPlannedEvent() {
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event", "description",
+                "location", LocalDate.of(2021, Month.MAY, 1)));
+
+        PlannedEvent first = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEvent.getPlannedEventId());
+        PlannedEvent second = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEvent.getPlannedEventId());
+
+        first.setDescription("first");
+        plannedEventRepository.save(first);
+        second.setDescription("second");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> plannedEventRepository.save(second));
+
+        PlannedEvent returned = plannedEventRepository.findPlannedEventByPlannedEventId(plannedEvent.getPlannedEventId());
+        assertEquals("first", returned.getDescription());
+        assertEquals(first.getVersion() + 1, returned.getVersion());
+    }
 }
@@ -4,17 +4,26 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import project.event.model.*;
 import project.event.dao.*;
 
-import java.util.Calendar;
-import java.util.GregorianCalendar;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class RegistrationRepositoryTest {
 
     @Autowired
@@ -29,6 +38,9 @@ public class RegistrationRepositoryTest {
     @Autowired
     private EventManagerRepository eventManagerRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     @AfterEach
     public void clearDatabase() {
@@ -52,7 +64,7 @@ public class RegistrationRepositoryTest {
 
         eventManager = eventManagerRepository.findEventManagerByGeneralUserId(generatedEventManager.getGeneralUserId());
         PlannedEvent plannedEvent = new PlannedEvent(eventManager, "event", "description", "location",
-                new GregorianCalendar(2021, Calendar.MAY, 1));
+                LocalDate.of(2021, Month.MAY, 1));
         PlannedEvent generatedPlannedEvent = plannedEventRepository.save(plannedEvent);
 
         Registration registration = new Registration(generatedPlannedEvent, generatedGeneralUser);
@@ -71,4 +83,71 @@ public class RegistrationRepositoryTest {
         assertEquals(generated.getGeneralUser().getGeneralUserId(), returned.getGeneralUser().getGeneralUserId());
         assertEquals(generated.getPlannedEvent().getPlannedEventId(), returned.getPlannedEvent().getPlannedEventId());
     }
+
+    /**
+     * Test that listing registrations loads their planned events, managers and users in a constant number of queries.
+     */
+    @Test
+    public void testFindAllRegistrationsStatementCount() {
+
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        List<GeneralUser> generalUsers = new ArrayList<>();
+        List<PlannedEvent> plannedEvents = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            generalUsers.add(new GeneralUser("name" + i));
+            plannedEvents.add(new PlannedEvent(eventManager, "event" + i, "description", "location",
+                    LocalDate.of(2021, Month.MAY, 1)));
+        }
+        generalUserRepository.saveAll(generalUsers);
+        plannedEventRepository.saveAll(plannedEvents);
+        List<Registration> registrations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            registrations.add(new Registration(plannedEvents.get(i), generalUsers.get(i)));
+        }
+        registrationRepository.saveAll(registrations);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Registration> returned = registrationRepository.findAll();
+
+        assertEquals(1000, returned.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        List<PlannedEvent> returnedPlannedEvents = plannedEventRepository.findAll();
+
+        assertEquals(1000, returnedPlannedEvents.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Test that a planned event takes many registrations and a user many events, but never the same pair twice.
+     */
+    @Test
+    public void testRegistrationPairIsUnique() {
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        GeneralUser firstUser = generalUserRepository.save(new GeneralUser("first"));
+        GeneralUser secondUser = generalUserRepository.save(new GeneralUser("second"));
+        PlannedEvent firstEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "first", "description",
+                "location", LocalDate.of(2021, Month.MAY, 1)));
+        PlannedEvent secondEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "second", "description",
+                "location", LocalDate.of(2021, Month.MAY, 2)));
+
+        registrationRepository.saveAll(List.of(
+                new Registration(firstEvent, firstUser),
+                new Registration(firstEvent, secondUser),
+                new Registration(secondEvent, firstUser)
+        ));
+
+        assertEquals(3, registrationRepository.count());
+        assertTrue(registrationRepository.existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(
+                firstEvent.getPlannedEventId(), secondUser.getGeneralUserId()));
+        assertFalse(registrationRepository.existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(
+                secondEvent.getPlannedEventId(), secondUser.getGeneralUserId()));
+        assertEquals(3, registrationRepository.findByPlannedEventIdsAndGeneralUserIds(
+                List.of(firstEvent.getPlannedEventId(), secondEvent.getPlannedEventId()),
+                List.of(firstUser.getGeneralUserId(), secondUser.getGeneralUserId())).size());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> registrationRepository.saveAndFlush(new Registration(firstEvent, firstUser)));
+    }
 }
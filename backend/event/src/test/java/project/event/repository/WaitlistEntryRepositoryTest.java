@@ -0,0 +1,105 @@
+package project.event.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.event.model.*;
+import project.event.dao.*;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class WaitlistEntryRepositoryTest {
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private GeneralUserRepository generalUserRepository;
+
+    @Autowired
+    private PlannedEventRepository plannedEventRepository;
+
+    @Autowired
+    private EventManagerRepository eventManagerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @AfterEach
+    public void clearDatabase() {
+        waitlistEntryRepository.deleteAll();
+        plannedEventRepository.deleteAll();
+        eventManagerRepository.deleteAll();
+        generalUserRepository.deleteAll();
+    }
+
+    /**
+     * Test the persistence and retrieval of the WaitlistEntry object.
+     */
+    @Test
+    public void testPersistAndReadWaitlistEntry() {
+        GeneralUser generalUser = generalUserRepository.save(new GeneralUser("name"));
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event", "description",
+                "location", LocalDate.of(2021, Month.MAY, 1), 1));
+
+        WaitlistEntry generated = waitlistEntryRepository.save(new WaitlistEntry(plannedEvent, generalUser));
+        WaitlistEntry returned = waitlistEntryRepository.findWaitlistEntryByWaitlistEntryId(generated.getWaitlistEntryId());
+
+        assertNotNull(returned);
+        assertEquals(generated.getWaitlistEntryId(), returned.getWaitlistEntryId());
+        assertEquals(plannedEvent.getPlannedEventId(), returned.getPlannedEvent().getPlannedEventId());
+        assertEquals("nameM", returned.getPlannedEvent().getEventManager().getName());
+        assertEquals(generalUser.getGeneralUserId(), returned.getGeneralUser().getGeneralUserId());
+        assertTrue(waitlistEntryRepository.existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(
+                plannedEvent.getPlannedEventId(), generalUser.getGeneralUserId()));
+    }
+
+    /**
+     * Test that the waitlist of a planned event is read in ticket order, and that tickets close up behind a leaver
+     */
+    @Test
+    public void testWaitlistQueueOrder() {
+        EventManager eventManager = eventManagerRepository.save(new EventManager("nameM"));
+        PlannedEvent plannedEvent = plannedEventRepository.save(new PlannedEvent(eventManager, "event", "description",
+                "location", LocalDate.of(2021, Month.MAY, 1), 1));
+        // Saved in reverse, so the queue cannot be following the ids
+        List<WaitlistEntry> waitlistEntries = new ArrayList<>();
+        for (int ticket = 5; ticket >= 1; ticket--) {
+            GeneralUser generalUser = generalUserRepository.save(new GeneralUser("name" + ticket));
+            waitlistEntries.add(0, waitlistEntryRepository.save(new WaitlistEntry(plannedEvent, generalUser, ticket)));
+        }
+        long plannedEventId = plannedEvent.getPlannedEventId();
+
+        // The head holds the lowest ticket, and it can only be locked within a transaction
+        List<WaitlistEntry> head = transactionTemplate.execute(status ->
+                waitlistEntryRepository.findHeadForUpdate(plannedEventId, Limit.of(2)));
+        assertNotNull(head);
+        assertEquals(2, head.size());
+        assertEquals(waitlistEntries.get(0).getWaitlistEntryId(), head.get(0).getWaitlistEntryId());
+        assertEquals(waitlistEntries.get(1).getWaitlistEntryId(), head.get(1).getWaitlistEntryId());
+
+        // Once the third entry leaves, everyone behind it moves up by one
+        waitlistEntryRepository.delete(waitlistEntries.get(2));
+        assertEquals(2, waitlistEntryRepository.moveUpBehind(plannedEventId, 3));
+        assertEquals(3, waitlistEntryRepository.findWaitlistEntryByWaitlistEntryId(
+                waitlistEntries.get(3).getWaitlistEntryId()).getTicket());
+        assertEquals(4, waitlistEntryRepository.findWaitlistEntryByWaitlistEntryId(
+                waitlistEntries.get(4).getWaitlistEntryId()).getTicket());
+        assertEquals(2, waitlistEntryRepository.findWaitlistEntryByWaitlistEntryId(
+                waitlistEntries.get(1).getWaitlistEntryId()).getTicket());
+    }
+}
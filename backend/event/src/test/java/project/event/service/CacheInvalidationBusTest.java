@@ -0,0 +1,185 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.model.GeneralUser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheInvalidationBusTest {
+
+    private static final String CHANNEL = "event_cache_invalidation";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSourceProperties dataSourceProperties;
+
+    @Mock
+    private PlannedEventCache plannedEventCache;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @BeforeEach
+    public void setConfiguration() {
+        ReflectionTestUtils.setField(cacheInvalidationBus, "channel", CHANNEL);
+        ReflectionTestUtils.setField(cacheInvalidationBus, "flushInterval", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(cacheInvalidationBus, "reconnectDelay", Duration.ofSeconds(5));
+        lenient().when(entityManagerFactory.getCache()).thenReturn(cache);
+        lenient().when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        lenient().when(sessionFactory.getCache()).thenReturn(hibernateCache);
+    }
+
+    /**
+     * Test that the changes committed between two flushes are sent as a single notification
+     */
+    @Test
+    public void testFlushBatchesChanges() {
+        cacheInvalidationBus.onPlannedEventChanged(PlannedEventChangedEvent.of(1));
+        cacheInvalidationBus.onPlannedEventChanged(PlannedEventChangedEvent.of(2));
+        cacheInvalidationBus.onPlannedEventChanged(PlannedEventChangedEvent.of(1));
+        cacheInvalidationBus.onGeneralUserChanged(GeneralUserChangedEvent.of(5));
+
+        cacheInvalidationBus.flush();
+        cacheInvalidationBus.flush();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).queryForList(eq("select pg_notify(?, ?)"), eq(CHANNEL), payload.capture());
+        CacheInvalidation invalidation = CacheInvalidation.parse(payload.getValue());
+        assertEquals(cacheInvalidationBus.getOrigin(), invalidation.getOrigin());
+        assertEquals(Set.of(1L, 2L), invalidation.getPlannedEventIds());
+        assertFalse(invalidation.isAllPlannedEvents());
+        assertEquals(Set.of(5L), invalidation.getGeneralUserIds());
+        assertTrue(invalidation.isGeneralUsersChanged());
+    }
+
+    /**
+     * Test that many changes are split over notifications small enough for Postgres
+     */
+    @Test
+    public void testFlushSplitsLargeBatches() {
+        for (long i = 0; i < 700; i++) {
+            cacheInvalidationBus.onPlannedEventChanged(PlannedEventChangedEvent.of(i));
+        }
+        cacheInvalidationBus.onGeneralUserChanged(GeneralUserChangedEvent.added());
+
+        cacheInvalidationBus.flush();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).queryForList(eq("select pg_notify(?, ?)"), eq(CHANNEL), payload.capture());
+        int plannedEvents = 0;
+        for (String value : payload.getAllValues()) {
+            assertTrue(value.length() < 8000);
+            plannedEvents += CacheInvalidation.parse(value).getPlannedEventIds().size();
+        }
+        assertEquals(700, plannedEvents);
+        assertTrue(CacheInvalidation.parse(payload.getAllValues().get(0)).isGeneralUsersChanged());
+        assertEquals(3, meterRegistry.counter("event.cache.invalidation.sent").count());
+    }
+
+    /**
+     * Test that changes that could not be sent are sent with the next flush
+     */
+    @Test
+    public void testFlushFailureRetried() {
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(List.of());
+        cacheInvalidationBus.onPlannedEventChanged(PlannedEventChangedEvent.all());
+
+        cacheInvalidationBus.flush();
+        cacheInvalidationBus.flush();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).queryForList(eq("select pg_notify(?, ?)"), eq(CHANNEL), payload.capture());
+        assertTrue(CacheInvalidation.parse(payload.getValue()).isAllPlannedEvents());
+        assertEquals(1, meterRegistry.counter("event.cache.invalidation.failures", "operation", "send").count());
+    }
+
+    /**
+     * Test that a notification from another instance drops what it names from the caches
+     */
+    @Test
+    public void testReceive() {
+        cacheInvalidationBus.receive("other;p=1,2;u=5");
+
+        verify(plannedEventCache).evict(1L);
+        verify(plannedEventCache).evict(2L);
+        verify(cache).evict(GeneralUser.class, 5L);
+        verify(hibernateCache).evictQueryRegions();
+        assertEquals(1, meterRegistry.counter("event.cache.invalidation.received").count());
+    }
+
+    /**
+     * Test that the notifications of this instance, and notifications that cannot be read, drop nothing
+     */
+    @Test
+    public void testReceiveIgnored() {
+        cacheInvalidationBus.receive(cacheInvalidationBus.getOrigin() + ";p=*;u=");
+        cacheInvalidationBus.receive("other;x=1");
+
+        verifyNoInteractions(plannedEventCache, entityManagerFactory);
+        assertEquals(1, meterRegistry.counter("event.cache.invalidation.failures", "operation", "receive").count());
+    }
+
+    /**
+     * Test that the listener keeps reconnecting after an unexpected exception instead of stopping for good
+     */
+    @Test
+    public void testListenRuntimeExceptionReconnects() throws InterruptedException {
+        ReflectionTestUtils.setField(cacheInvalidationBus, "reconnectDelay", Duration.ofMillis(10));
+        when(dataSourceProperties.determineUrl()).thenThrow(new IllegalStateException("No database URL"));
+
+        cacheInvalidationBus.start();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.counter("event.cache.invalidation.failures", "operation", "listen").count() < 2
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        cacheInvalidationBus.stop();
+
+        assertTrue(meterRegistry.counter("event.cache.invalidation.failures", "operation", "listen").count() >= 2);
+        verify(dataSourceProperties, atLeast(2)).determineUrl();
+    }
+}
@@ -0,0 +1,153 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.exception.EventRegistrationAppException;
+import project.event.model.EventManager;
+import project.event.dto.PlannedEventResponseDto;
+import project.event.model.PlannedEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheWarmUpTest {
+
+    @Mock
+    private PlannedEventService plannedEventService;
+
+    @Mock
+    private EventManagerService eventManagerService;
+
+    @Mock
+    private PlannedEventCache plannedEventCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CacheWarmUp cacheWarmUp;
+
+    @BeforeEach
+    public void setConfiguration() {
+        ReflectionTestUtils.setField(cacheWarmUp, "enabled", true);
+        ReflectionTestUtils.setField(cacheWarmUp, "days", 3);
+        ReflectionTestUtils.setField(cacheWarmUp, "parallelism", 2);
+        ReflectionTestUtils.setField(cacheWarmUp, "batchSize", 2);
+        ReflectionTestUtils.setField(cacheWarmUp, "timeout", Duration.ofSeconds(10));
+        lenient().when(plannedEventService.getPlannedEventsPage(any(), any(), any(), anyInt()))
+                .thenReturn(new PlannedEventPage(List.of(), null));
+    }
+
+    /**
+     * Helper method to create a planned event of an event manager
+     */
+    private PlannedEvent createPlannedEvent(long plannedEventId, long eventManagerId) {
+        EventManager eventManager = new EventManager();
+        eventManager.setGeneralUserId(eventManagerId);
+        eventManager.setName("manager" + eventManagerId);
+        PlannedEvent plannedEvent = new PlannedEvent(eventManager, "event", "description", "location", LocalDate.now());
+        plannedEvent.setPlannedEventId(plannedEventId);
+        return plannedEvent;
+    }
+
+    /**
+     * Test that every page of every day is listed, each listed planned event is cached as listed, and each event
+     * manager is loaded once
+     */
+    @Test
+    public void testRun() throws InterruptedException {
+        LocalDate today = LocalDate.now();
+        when(plannedEventService.getPlannedEventsPage(eq(today), eq(today), isNull(), anyInt()))
+                .thenReturn(new PlannedEventPage(List.of(createPlannedEvent(1, 10), createPlannedEvent(2, 10)), "next"));
+        when(plannedEventService.getPlannedEventsPage(eq(today), eq(today), eq("next"), anyInt()))
+                .thenReturn(new PlannedEventPage(List.of(createPlannedEvent(3, 11)), null));
+        LocalDate tomorrow = today.plusDays(1);
+        when(plannedEventService.getPlannedEventsPage(eq(tomorrow), eq(tomorrow), isNull(), anyInt()))
+                .thenReturn(new PlannedEventPage(List.of(createPlannedEvent(4, 12), createPlannedEvent(5, 10)), null));
+
+        cacheWarmUp.run(null);
+
+        ArgumentCaptor<PlannedEventResponseDto> cached = ArgumentCaptor.forClass(PlannedEventResponseDto.class);
+        verify(plannedEventCache, times(5)).putIfAbsent(cached.capture());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                cached.getAllValues().stream().map(PlannedEventResponseDto::getEventId).sorted().toList());
+        assertEquals("manager12", cached.getAllValues().stream().filter(plannedEvent -> plannedEvent.getEventId() == 4)
+                .findFirst().orElseThrow().getEventManager().getName());
+        verify(eventManagerService).getEventManagerById(10);
+        verify(eventManagerService).getEventManagerById(11);
+        verify(eventManagerService).getEventManagerById(12);
+        verify(plannedEventService, times(4)).getPlannedEventsPage(any(), any(), any(), anyInt());
+        assertEquals(5, meterRegistry.counter("event.cache.warm-up.entries", "cache", "plannedEvent").count());
+        assertEquals(3, meterRegistry.counter("event.cache.warm-up.entries", "cache", "eventManager").count());
+        assertEquals(1, meterRegistry.timer("event.cache.warm-up", "outcome", "completed").count());
+    }
+
+    /**
+     * Test that an event manager deleted after its planned event was listed does not stop the warm-up
+     */
+    @Test
+    public void testRunDeletedEventManager() throws InterruptedException {
+        LocalDate today = LocalDate.now();
+        when(plannedEventService.getPlannedEventsPage(eq(today), eq(today), isNull(), anyInt()))
+                .thenReturn(new PlannedEventPage(List.of(createPlannedEvent(1, 10), createPlannedEvent(2, 11)), null));
+        when(eventManagerService.getEventManagerById(10))
+                .thenThrow(new EventRegistrationAppException("Event manager not found", HttpStatus.NOT_FOUND));
+
+        cacheWarmUp.run(null);
+
+        verify(eventManagerService).getEventManagerById(11);
+        assertEquals(2, meterRegistry.counter("event.cache.warm-up.entries", "cache", "plannedEvent").count());
+        assertEquals(1, meterRegistry.counter("event.cache.warm-up.entries", "cache", "eventManager").count());
+        assertEquals(1, meterRegistry.timer("event.cache.warm-up", "outcome", "completed").count());
+    }
+
+    /**
+     * Test that the warm-up gives up at the timeout, so the application still starts
+     */
+    @Test
+    public void testRunTimeout() throws InterruptedException {
+        ReflectionTestUtils.setField(cacheWarmUp, "timeout", Duration.ofMillis(100));
+        when(plannedEventService.getPlannedEventsPage(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return new PlannedEventPage(List.of(), null);
+        });
+
+        cacheWarmUp.run(null);
+
+        verify(plannedEventCache, never()).putIfAbsent(any());
+        verify(eventManagerService, never()).getEventManagerById(anyLong());
+        assertEquals(1, meterRegistry.timer("event.cache.warm-up", "outcome", "timeout").count());
+    }
+
+    /**
+     * Test that nothing is loaded when the warm-up is turned off
+     */
+    @Test
+    public void testRunDisabled() throws InterruptedException {
+        ReflectionTestUtils.setField(cacheWarmUp, "enabled", false);
+
+        cacheWarmUp.run(null);
+
+        verifyNoInteractions(plannedEventService, eventManagerService, plannedEventCache);
+    }
+}
@@ -0,0 +1,146 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.exception.EventRegistrationAppException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimiterTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @BeforeEach
+    public void setConfiguration() {
+        ReflectionTestUtils.setField(concurrencyLimiter, "enabled", true);
+        ReflectionTestUtils.setField(concurrencyLimiter, "initialLimit", 2);
+        ReflectionTestUtils.setField(concurrencyLimiter, "minLimit", 1);
+        ReflectionTestUtils.setField(concurrencyLimiter, "maxLimit", 4);
+        ReflectionTestUtils.setField(concurrencyLimiter, "targetLatency", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(concurrencyLimiter, "backoffRatio", 0.5);
+        concurrencyLimiter.start();
+    }
+
+    /**
+     * Test that a write is turned away while as many writes as the limit are running
+     */
+    @Test
+    public void testExecuteRejectsOverLimit() throws Exception {
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[2];
+        for (int i = 0; i < writes.length; i++) {
+            writes[i] = CompletableFuture.runAsync(() -> concurrencyLimiter.execute("test", () -> {
+                running.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        EventRegistrationAppException e = assertThrows(EventRegistrationAppException.class,
+                () -> concurrencyLimiter.execute("test", () -> "written"));
+        release.countDown();
+        CompletableFuture.allOf(writes).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(1, meterRegistry.counter("event.concurrency.rejected", "operation", "test").count());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        assertEquals("written", concurrencyLimiter.execute("test", () -> "written"));
+    }
+
+    /**
+     * Test that a write slower than the target latency cuts the limit
+     */
+    @Test
+    public void testExecuteSlowWriteCutsLimit() {
+        concurrencyLimiter.execute("test", () -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "written";
+        });
+
+        assertEquals(1, concurrencyLimiter.getLimit());
+    }
+
+    /**
+     * Test that a batch within the target latency for each of its items leaves the limit of single writes alone
+     */
+    @Test
+    public void testExecuteSlowBatchKeepsLimit() {
+        concurrencyLimiter.execute("test", 10, () -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "written";
+        });
+
+        assertEquals(2, concurrencyLimiter.getLimit());
+    }
+
+    /**
+     * Test that fast writes using at least half of the limit raise it, up to the maximum
+     */
+    @Test
+    public void testExecuteFastWritesRaiseLimit() {
+        ReflectionTestUtils.setField(concurrencyLimiter, "maxLimit", 3);
+
+        for (int i = 0; i < 100; i++) {
+            concurrencyLimiter.execute("test", () -> "written");
+        }
+
+        assertEquals(3, concurrencyLimiter.getLimit());
+    }
+
+    /**
+     * Test that a write that fails is still counted out
+     */
+    @Test
+    public void testExecuteFailedWrite() {
+        assertThrows(IllegalStateException.class, () -> concurrencyLimiter.execute("test", () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    /**
+     * Test that writes failing fast are not taken as a sign that the limit can grow
+     */
+    @Test
+    public void testExecuteFailedWritesKeepLimit() {
+        for (int i = 0; i < 100; i++) {
+            assertThrows(IllegalStateException.class, () -> concurrencyLimiter.execute("test", () -> {
+                throw new IllegalStateException();
+            }));
+        }
+
+        assertEquals(2, concurrencyLimiter.getLimit());
+    }
+}
@@ -0,0 +1,94 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import project.event.exception.EventRegistrationAppException;
+import project.event.model.PlannedEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConflictRetryTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ConflictRetry conflictRetry;
+
+    /**
+     * Test that a write conflicting with another one is run again until it goes through
+     */
+    @Test
+    public void testExecuteRetriesConflicts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = conflictRetry.execute("test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(PlannedEvent.class, 1L);
+            }
+            return "written";
+        });
+
+        assertEquals("written", result);
+        assertEquals(3, calls.get());
+        assertEquals(3, meterRegistry.counter("event.write.attempts", "operation", "test").count());
+        assertEquals(2, meterRegistry.counter("event.write.conflicts", "operation", "test").count());
+        assertEquals(0, meterRegistry.counter("event.write.conflicts.exhausted", "operation", "test").count());
+    }
+
+    /**
+     * Test that a write that keeps conflicting ends with a conflict response
+     */
+    @Test
+    public void testExecuteRetriesExhausted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String message = null;
+        HttpStatus status = null;
+        try {
+            conflictRetry.execute("test", () -> {
+                calls.incrementAndGet();
+                throw new ObjectOptimisticLockingFailureException(PlannedEvent.class, 1L);
+            });
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+
+        assertEquals("The resource was modified concurrently, please try again", message);
+        assertEquals(HttpStatus.CONFLICT, status);
+        assertEquals(ConflictRetry.MAX_ATTEMPTS, calls.get());
+        assertEquals(1, meterRegistry.counter("event.write.conflicts.exhausted", "operation", "test").count());
+    }
+
+    /**
+     * Test that errors other than conflicts are not retried
+     */
+    @Test
+    public void testExecuteDoesNotRetryOtherErrors() {
+        AtomicInteger calls = new AtomicInteger();
+
+        try {
+            conflictRetry.execute("test", () -> {
+                calls.incrementAndGet();
+                throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
+            });
+            fail();
+        } catch (EventRegistrationAppException e) {
+            assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        }
+
+        assertEquals(1, calls.get());
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import project.event.dao.GeneralUserRepository;
 import project.event.dao.EventManagerRepository;
@@ -16,8 +18,13 @@ import project.event.model.GeneralUser;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class EventManagerServiceTest {
@@ -28,19 +35,22 @@ public class EventManagerServiceTest {
     @Mock
     private EventManagerRepository eventManagerRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private EventManagerService eventManagerService;
 
     private final String NAME_USER = "name1";
     private final String NAME_MANAGER = "name2";
-    private final int USER_ID = 1;
-    private final int MANAGER_ID = 2;
-    private final int NON_EXISTING_USER_ID = 3;
-    private final int NON_EXISTING_MANAGER_ID = 4;
+    private final long USER_ID = 1;
+    private final long MANAGER_ID = 2;
+    private final long NON_EXISTING_USER_ID = 3;
+    private final long NON_EXISTING_MANAGER_ID = 4;
 
     @BeforeEach
     public void setMockOutput() {
-        lenient().when(generalUserRepository.findGeneralUserByGeneralUserId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(generalUserRepository.findGeneralUserByGeneralUserId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(USER_ID)) {
                 GeneralUser generalUser = new GeneralUser();
                 generalUser.setGeneralUserId(USER_ID);
@@ -51,7 +61,7 @@ public class EventManagerServiceTest {
             }
         });
 
-        lenient().when(eventManagerRepository.findEventManagerByGeneralUserId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(eventManagerRepository.findEventManagerByGeneralUserId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(MANAGER_ID)) {
                 EventManager eventManager = new EventManager();
                 eventManager.setGeneralUserId(MANAGER_ID);
@@ -77,6 +87,8 @@ public class EventManagerServiceTest {
             generalUsers.add(generalUser);
             return generalUsers;
         });
+        lenient().when(generalUserRepository.existsByName(anyString())).thenAnswer((invocation) ->
+                invocation.getArgument(0).equals(NAME_USER) || invocation.getArgument(0).equals(NAME_MANAGER));
     }
 
     /**
@@ -182,6 +194,8 @@ public class EventManagerServiceTest {
 
         assertNotNull(eventManager);
         assertEquals("newName", eventManager.getName());
+        verify(applicationEventPublisher).publishEvent(argThat((Object event) -> event instanceof PlannedEventChangedEvent
+                && ((PlannedEventChangedEvent) event).getPlannedEventId() == null));
     }
 
     /**
@@ -377,4 +391,25 @@ public class EventManagerServiceTest {
         assertEquals(NAME_MANAGER, eventManagers.get(0).getName());
     }
 
+    /**
+     * Test creating a event manager whose name is taken concurrently, violating the unique name constraint
+     */
+    @Test
+    public void testCreateEventManagerConcurrentDuplicateName() {
+        when(eventManagerRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate name"));
+
+        EventManager eventManager = null;
+        String message = null;
+        HttpStatus status = null;
+        try {
+            eventManager = eventManagerService.createEventManager("name10");
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+        assertNull(eventManager);
+        assertEquals("Name already exists", message);
+        assertEquals(HttpStatus.BAD_REQUEST, status);
+    }
 }
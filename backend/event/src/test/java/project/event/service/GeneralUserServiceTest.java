@@ -1,11 +1,14 @@
 package project.event.service;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import project.event.dao.GeneralUserRepository;
 import project.event.dao.EventManagerRepository;
@@ -13,11 +16,18 @@ import project.event.exception.EventRegistrationAppException;
 import project.event.model.EventManager;
 import project.event.model.GeneralUser;
 
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class GeneralUserServiceTest {
@@ -28,19 +38,25 @@ public class GeneralUserServiceTest {
     @Mock
     private EventManagerRepository eventManagerRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private GeneralUserService generalUserService;
 
     private final String NAME_USER = "name1";
     private final String NAME_MANAGER = "name2";
-    private final int USER_ID = 1;
-    private final int MANAGER_ID = 2;
-    private final int NON_EXISTING_USER_ID = 3;
-    private final int NON_EXISTING_MANAGER_ID = 4;
+    private final long USER_ID = 1;
+    private final long MANAGER_ID = 2;
+    private final long NON_EXISTING_USER_ID = 3;
+    private final long NON_EXISTING_MANAGER_ID = 4;
 
     @BeforeEach
     public void setMockOutput() {
-        lenient().when(generalUserRepository.findGeneralUserByGeneralUserId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(generalUserRepository.findGeneralUserByGeneralUserId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(USER_ID)) {
                 GeneralUser generalUser = new GeneralUser();
                 generalUser.setGeneralUserId(USER_ID);
@@ -51,7 +67,7 @@ public class GeneralUserServiceTest {
             }
         });
 
-        lenient().when(eventManagerRepository.findEventManagerByGeneralUserId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(eventManagerRepository.findEventManagerByGeneralUserId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(MANAGER_ID)) {
                 EventManager eventManager = new EventManager();
                 eventManager.setGeneralUserId(MANAGER_ID);
@@ -77,6 +93,8 @@ public class GeneralUserServiceTest {
             generalUsers.add(generalUser);
             return generalUsers;
         });
+        lenient().when(generalUserRepository.existsByName(anyString())).thenAnswer((invocation) ->
+                invocation.getArgument(0).equals(NAME_USER) || invocation.getArgument(0).equals(NAME_MANAGER));
     }
 
     /**
@@ -177,6 +195,8 @@ public class GeneralUserServiceTest {
         }
         assertNotNull(generalUser);
         assertEquals("newName", generalUser.getName());
+        verify(applicationEventPublisher).publishEvent(argThat((Object event) -> event instanceof GeneralUserChangedEvent
+                && ((GeneralUserChangedEvent) event).getGeneralUserId() == USER_ID));
     }
 
     /**
@@ -363,4 +383,45 @@ public class GeneralUserServiceTest {
         assertEquals(NAME_USER, generalUsers.get(0).getName());
     }
 
+    /**
+     * Test creating a general user whose name is taken concurrently, violating the unique name constraint
+     */
+    @Test
+    public void testCreateGeneralUserConcurrentDuplicateName() {
+        when(generalUserRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate name"));
+
+        GeneralUser generalUser = null;
+        String message = null;
+        HttpStatus status = null;
+        try {
+            generalUser = generalUserService.createGeneralUser("name10");
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+        assertNull(generalUser);
+        assertEquals("Name already exists", message);
+        assertEquals(HttpStatus.BAD_REQUEST, status);
+    }
+
+    /**
+     * Test importing general users from CSV
+     */
+    @Test
+    public void testImportGeneralUsers() {
+        when(generalUserRepository.findExistingNames(any())).thenReturn(Set.of(NAME_USER));
+
+        String csv = "name\nnewUser1\n\"Doe, Jane\",extra\n" + NAME_USER + "\nnewUser1\n\n";
+        GeneralUserImportSummary summary = null;
+        try {
+            summary = generalUserService.importGeneralUsers(new StringReader(csv));
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+        assertNotNull(summary);
+        assertEquals(2, summary.getCreated());
+        assertEquals(2, summary.getDuplicates());
+        assertEquals(1, summary.getInvalid());
+    }
 }
@@ -0,0 +1,158 @@
+package project.event.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.dao.IdempotencyRecordRepository;
+import project.event.exception.EventRegistrationAppException;
+import project.event.model.IdempotencyRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    public void createCache() {
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(idempotencyService, "maxEntries", 100L);
+        idempotencyService.createCache();
+    }
+
+    /**
+     * Test that a retry with the same key is answered with the first response
+     */
+    @Test
+    public void testExecuteReplaysResponse() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<?> first = idempotencyService.execute("POST /test", "key", "request",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("created " + calls.incrementAndGet()));
+        ResponseEntity<?> retry = idempotencyService.execute("POST /test", "key", "request",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("created " + calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("\"created 1\"", new String((byte[]) retry.getBody(), StandardCharsets.UTF_8));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    /**
+     * Test that requests without a key always run
+     */
+    @Test
+    public void testExecuteWithoutKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute("POST /test", null, "request", () -> ResponseEntity.ok(calls.incrementAndGet()));
+        idempotencyService.execute("POST /test", null, "request", () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        assertEquals(2, calls.get());
+    }
+
+    /**
+     * Test that a failed request is not stored, so its retry runs again
+     */
+    @Test
+    public void testExecuteDoesNotStoreFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        try {
+            idempotencyService.execute("POST /test", "key", "request", () -> {
+                calls.incrementAndGet();
+                throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
+            });
+            fail();
+        } catch (EventRegistrationAppException e) {
+            assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        }
+        ResponseEntity<?> retry = idempotencyService.execute("POST /test", "key", "request",
+                () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        assertEquals(2, calls.get());
+        assertEquals(2, retry.getBody());
+    }
+
+    /**
+     * Test that a key cannot be reused for a different request
+     */
+    @Test
+    public void testExecuteKeyReusedForDifferentRequest() {
+        idempotencyService.execute("POST /test", "key", "request", () -> ResponseEntity.ok("done"));
+
+        String message = null;
+        HttpStatus status = null;
+        try {
+            idempotencyService.execute("POST /test", "key", "other request", () -> ResponseEntity.ok("done"));
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+
+        assertEquals("Idempotency key was already used for a different request", message);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, status);
+    }
+
+    /**
+     * Test that with the table enabled, responses stored by another instance are replayed and new ones are saved
+     */
+    @Test
+    public void testExecuteWithTable() {
+        ReflectionTestUtils.setField(idempotencyService, "tableEnabled", true);
+        ResponseEntity<?> stored = idempotencyService.execute("POST /test", "stored", "request",
+                () -> ResponseEntity.ok("done"));
+        byte[] body = (byte[]) idempotencyService.execute("POST /test", "stored", "request",
+                () -> ResponseEntity.ok("again")).getBody();
+        verify(idempotencyRecordRepository).save(any());
+        assertEquals("done", stored.getBody());
+
+        // A fresh cache, as on another instance, finds the response in the table
+        idempotencyService.createCache();
+        lenient().when(idempotencyRecordRepository.findIdempotencyRecordByIdempotencyKey("POST /test stored"))
+                .thenAnswer((invocation) -> new IdempotencyRecord("POST /test stored",
+                        fingerprintOf("POST /test", "request"), 200, body, Instant.now()));
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<?> replayed = idempotencyService.execute("POST /test", "stored", "request",
+                () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        assertEquals(0, calls.get());
+        assertEquals("\"done\"", new String((byte[]) replayed.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Helper method to get the fingerprint the service computes for a request, by storing a response for it
+     */
+    private String fingerprintOf(String operation, Object request) {
+        IdempotencyService other = new IdempotencyService();
+        ReflectionTestUtils.setField(other, "objectMapper", objectMapper);
+        return ReflectionTestUtils.invokeMethod(other, "fingerprint", operation, request);
+    }
+}
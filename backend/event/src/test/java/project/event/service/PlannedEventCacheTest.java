@@ -0,0 +1,173 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.dto.EventManagerResponseDto;
+import project.event.dto.PlannedEventResponseDto;
+import project.event.exception.EventRegistrationAppException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlannedEventCacheTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PlannedEventCache plannedEventCache;
+
+    private static final long PLANNED_EVENT_ID = 1;
+    private static final long OTHER_PLANNED_EVENT_ID = 2;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setConfiguration() {
+        ReflectionTestUtils.setField(plannedEventCache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(plannedEventCache, "ttl", Duration.ofMinutes(5));
+        plannedEventCache.createCache();
+    }
+
+    /**
+     * Helper method to load a planned event, counting the loads
+     */
+    private PlannedEventResponseDto load(long plannedEventId) {
+        loads.incrementAndGet();
+        return new PlannedEventResponseDto(new EventManagerResponseDto("manager", 3), "event", "description",
+                "location", 2100, 4, 1, plannedEventId, 10, 0, 0, 0);
+    }
+
+    /**
+     * Test that a planned event is loaded once and then served from the cache
+     */
+    @Test
+    public void testGetCached() {
+        PlannedEventResponseDto first = plannedEventCache.get(PLANNED_EVENT_ID, this::load);
+        PlannedEventResponseDto second = plannedEventCache.get(PLANNED_EVENT_ID, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "plannedEvent", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "plannedEvent", "result", "miss")
+                .functionCounter().count());
+    }
+
+    /**
+     * Test that a planned event put into the cache is served without loading, and does not replace a cached one
+     */
+    @Test
+    public void testPutIfAbsent() {
+        PlannedEventResponseDto cached = load(PLANNED_EVENT_ID);
+        plannedEventCache.putIfAbsent(cached);
+        plannedEventCache.putIfAbsent(load(PLANNED_EVENT_ID));
+
+        assertSame(cached, plannedEventCache.get(PLANNED_EVENT_ID, this::load));
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Test that a change to a planned event drops only that planned event
+     */
+    @Test
+    public void testChangedPlannedEvent() {
+        plannedEventCache.get(PLANNED_EVENT_ID, this::load);
+        plannedEventCache.get(OTHER_PLANNED_EVENT_ID, this::load);
+
+        plannedEventCache.onPlannedEventChanged(PlannedEventChangedEvent.of(PLANNED_EVENT_ID));
+        plannedEventCache.get(PLANNED_EVENT_ID, this::load);
+        plannedEventCache.get(OTHER_PLANNED_EVENT_ID, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    /**
+     * Test that a change that can touch any planned event drops all of them
+     */
+    @Test
+    public void testChangedAllPlannedEvents() {
+        plannedEventCache.get(PLANNED_EVENT_ID, this::load);
+        plannedEventCache.get(OTHER_PLANNED_EVENT_ID, this::load);
+
+        plannedEventCache.onPlannedEventChanged(PlannedEventChangedEvent.all());
+        plannedEventCache.get(PLANNED_EVENT_ID, this::load);
+        plannedEventCache.get(OTHER_PLANNED_EVENT_ID, this::load);
+
+        assertEquals(4, loads.get());
+    }
+
+    /**
+     * Test that a planned event that is not found is not cached
+     */
+    @Test
+    public void testGetNotFound() {
+        for (int i = 0; i < 2; i++) {
+            EventRegistrationAppException e = assertThrows(EventRegistrationAppException.class,
+                    () -> plannedEventCache.get(PLANNED_EVENT_ID, plannedEventId -> {
+                        loads.incrementAndGet();
+                        throw new EventRegistrationAppException("Planned event not found", HttpStatus.NOT_FOUND);
+                    }));
+            assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Test that concurrent misses for the same planned event wait for a single load
+     */
+    @Test
+    public void testGetConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<PlannedEventResponseDto> first = CompletableFuture.supplyAsync(() ->
+                plannedEventCache.get(PLANNED_EVENT_ID, plannedEventId -> {
+                    loading.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return load(plannedEventId);
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<PlannedEventResponseDto> second = CompletableFuture.supplyAsync(() ->
+                plannedEventCache.get(PLANNED_EVENT_ID, this::load));
+
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Test that a load failing with an error is dropped, rather than left pending for the next misses to wait on
+     */
+    @Test
+    public void testGetLoadError() {
+        assertThrows(OutOfMemoryError.class, () -> plannedEventCache.get(PLANNED_EVENT_ID, plannedEventId -> {
+            throw new OutOfMemoryError("load failed");
+        }));
+
+        PlannedEventResponseDto plannedEvent = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> plannedEventCache.get(PLANNED_EVENT_ID, this::load));
+
+        assertEquals(PLANNED_EVENT_ID, plannedEvent.getEventId());
+        assertEquals(1, loads.get());
+    }
+}
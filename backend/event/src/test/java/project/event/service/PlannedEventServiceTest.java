@@ -6,21 +6,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import project.event.dao.EventManagerRepository;
 import project.event.dao.PlannedEventRepository;
 import project.event.exception.EventRegistrationAppException;
 import project.event.model.EventManager;
 import project.event.model.PlannedEvent;
+import project.event.model.Registration;
 
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.GregorianCalendar;
-import java.util.Locale;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class PlannedEventServiceTest {
@@ -31,17 +40,23 @@ public class PlannedEventServiceTest {
     @Mock
     private EventManagerRepository eventManagerRepository;
 
+    @Mock
+    private RegistrationService registrationService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private PlannedEventService plannedEventService;
 
-    private final int PLANNED_EVENT_ID = 1;
-    private final int NONEXISTENT_PLANNED_EVENT_ID = 2;
-    private final int EVENT_MANAGER_ID = 3;
-    private final int NONEXISTENT_EVENT_MANAGER_ID = 4;
+    private final long PLANNED_EVENT_ID = 1;
+    private final long NONEXISTENT_PLANNED_EVENT_ID = 2;
+    private final long EVENT_MANAGER_ID = 3;
+    private final long NONEXISTENT_EVENT_MANAGER_ID = 4;
 
     @BeforeEach
     public void setMockOutputPlannedEvent() {
-        lenient().when(plannedEventRepository.findPlannedEventByPlannedEventId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(plannedEventRepository.findPlannedEventByPlannedEventId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(PLANNED_EVENT_ID)) {
                 PlannedEvent plannedEvent = new PlannedEvent();
                 plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
@@ -50,7 +65,7 @@ public class PlannedEventServiceTest {
                 return null;
             }
         });
-        lenient().when(eventManagerRepository.findEventManagerByGeneralUserId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(eventManagerRepository.findEventManagerByGeneralUserId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(EVENT_MANAGER_ID)) {
                 EventManager eventManager = new EventManager();
                 eventManager.setGeneralUserId(EVENT_MANAGER_ID);
@@ -76,7 +91,7 @@ public class PlannedEventServiceTest {
         assertEquals(0, plannedEventRepository.count());
 
         EventManager eventManager = new EventManager("EventManager");
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         try {
@@ -102,7 +117,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventNullEventManager() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -130,7 +145,7 @@ public class PlannedEventServiceTest {
         assertEquals(0, plannedEventRepository.count());
 
         EventManager eventManager = new EventManager("EventManager");
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -158,7 +173,7 @@ public class PlannedEventServiceTest {
         assertEquals(0, plannedEventRepository.count());
 
         EventManager eventManager = new EventManager("EventManager");
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -186,7 +201,7 @@ public class PlannedEventServiceTest {
         assertEquals(0, plannedEventRepository.count());
 
         EventManager eventManager = new EventManager("EventManager");
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -214,7 +229,7 @@ public class PlannedEventServiceTest {
         assertEquals(0, plannedEventRepository.count());
 
         EventManager eventManager = new EventManager("EventManager");
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -269,7 +284,7 @@ public class PlannedEventServiceTest {
         assertEquals(0, plannedEventRepository.count());
 
         EventManager eventManager = new EventManager("EventManager");
-        GregorianCalendar date = new GregorianCalendar(2020, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(2020, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -296,7 +311,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventWithIds() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         try {
@@ -322,7 +337,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventNonExistentEventManager() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -349,7 +364,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventNullEventNameId() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -376,7 +391,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventEmptyEventNameId() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -403,7 +418,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventNullLocationId() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -430,7 +445,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventEmptyLocationId() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(9000, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(9000, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -482,7 +497,7 @@ public class PlannedEventServiceTest {
     public void testCreatePlannedEventPastDateId() {
         assertEquals(0, plannedEventRepository.count());
 
-        GregorianCalendar date = new GregorianCalendar(2020, Calendar.MAY, 2);
+        LocalDate date = LocalDate.of(2020, Month.MAY, 2);
 
         PlannedEvent plannedEvent = null;
         String message = null;
@@ -513,7 +528,7 @@ public class PlannedEventServiceTest {
         try {
             updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
                     "NewEventName", "NewDescription", "NewLocation",
-                    new GregorianCalendar(9000, Calendar.MAY, 3));
+                    LocalDate.of(9000, Month.MAY, 3));
         } catch (EventRegistrationAppException e) {
             fail();
         }
@@ -522,7 +537,9 @@ public class PlannedEventServiceTest {
         assertEquals("NewEventName", updatedPlannedEvent.getEventName());
         assertEquals("NewDescription", updatedPlannedEvent.getDescription());
         assertEquals("NewLocation", updatedPlannedEvent.getLocation());
-        assertEquals(new GregorianCalendar(9000, Calendar.MAY, 3), updatedPlannedEvent.getDate());
+        assertEquals(LocalDate.of(9000, Month.MAY, 3), updatedPlannedEvent.getDate());
+        verify(applicationEventPublisher).publishEvent(argThat((Object event) -> event instanceof PlannedEventChangedEvent
+                && ((PlannedEventChangedEvent) event).getPlannedEventId() == PLANNED_EVENT_ID));
     }
 
     /**
@@ -538,7 +555,7 @@ public class PlannedEventServiceTest {
         try {
             updatedPlannedEvent = plannedEventService.updatePlannedEvent(NONEXISTENT_PLANNED_EVENT_ID,
                     "NewEventName", "NewDescription", "NewLocation",
-                    new GregorianCalendar(9000, Calendar.MAY, 3));
+                    LocalDate.of(9000, Month.MAY, 3));
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
@@ -563,7 +580,7 @@ public class PlannedEventServiceTest {
         try {
             updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
                     null, "NewDescription", "NewLocation",
-                    new GregorianCalendar(9000, Calendar.MAY, 3));
+                    LocalDate.of(9000, Month.MAY, 3));
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
@@ -588,7 +605,7 @@ public class PlannedEventServiceTest {
         try {
             updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
                     "", "NewDescription", "NewLocation",
-                    new GregorianCalendar(9000, Calendar.MAY, 3));
+                    LocalDate.of(9000, Month.MAY, 3));
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
@@ -613,7 +630,7 @@ public class PlannedEventServiceTest {
         try {
             updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
                     "NewEventName", "NewDescription", null,
-                    new GregorianCalendar(9000, Calendar.MAY, 3));
+                    LocalDate.of(9000, Month.MAY, 3));
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
@@ -638,7 +655,7 @@ public class PlannedEventServiceTest {
         try {
             updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
                     "NewEventName", "NewDescription", "",
-                    new GregorianCalendar(9000, Calendar.MAY, 3));
+                    LocalDate.of(9000, Month.MAY, 3));
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
@@ -688,7 +705,7 @@ public class PlannedEventServiceTest {
         try {
             updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
                     "NewEventName", "NewDescription", "NewLocation",
-                    new GregorianCalendar(2020, Calendar.MAY, 3));
+                    LocalDate.of(2020, Month.MAY, 3));
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
@@ -795,4 +812,240 @@ public class PlannedEventServiceTest {
         assertEquals(PLANNED_EVENT_ID, plannedEvents.get(0).getPlannedEventId());
     }
 
+    /**
+     * Test getting the first page of planned events when there is a next page
+     */
+    @Test
+    public void testGetPlannedEventsPage() {
+        lenient().when(plannedEventRepository.findFirstPage(any())).thenAnswer((invocation) -> {
+            ArrayList<PlannedEvent> plannedEvents = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                PlannedEvent plannedEvent = new PlannedEvent();
+                plannedEvent.setPlannedEventId(i);
+                plannedEvent.setDate(LocalDate.of(9000, Month.MAY, i));
+                plannedEvents.add(plannedEvent);
+            }
+            return plannedEvents;
+        });
+
+        PlannedEventPage page = plannedEventService.getPlannedEventsPage(null, 2);
+
+        assertNotNull(page);
+        assertEquals(2, page.getPlannedEvents().size());
+        assertEquals(1, page.getPlannedEvents().get(0).getPlannedEventId());
+        assertEquals(2, page.getPlannedEvents().get(1).getPlannedEventId());
+        assertNotNull(page.getNextCursor());
+    }
+
+    /**
+     * Test getting a page of planned events with an invalid page size
+     */
+    @Test
+    public void testGetPlannedEventsPageInvalidPageSize() {
+        PlannedEventPage page = null;
+        String message = null;
+        HttpStatus status = null;
+        try {
+            page = plannedEventService.getPlannedEventsPage(null, 0);
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+
+        assertNull(page);
+        assertEquals("Page size must be between 1 and " + PlannedEventService.MAX_PAGE_SIZE, message);
+        assertEquals(HttpStatus.BAD_REQUEST, status);
+    }
+
+    /**
+     * Test getting a page of planned events with an invalid cursor
+     */
+    @Test
+    public void testGetPlannedEventsPageInvalidCursor() {
+        PlannedEventPage page = null;
+        String message = null;
+        HttpStatus status = null;
+        try {
+            page = plannedEventService.getPlannedEventsPage("not-a-cursor", 10);
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+
+        assertNull(page);
+        assertEquals("Invalid cursor", message);
+        assertEquals(HttpStatus.BAD_REQUEST, status);
+    }
+
+    /**
+     * Test getting the first page of planned events between two dates
+     */
+    @Test
+    public void testGetPlannedEventsPageBetweenDates() {
+        LocalDate from = LocalDate.of(9000, Month.MAY, 1);
+        LocalDate to = LocalDate.of(9000, Month.MAY, 31);
+        lenient().when(plannedEventRepository.findFirstPageBetween(eq(from), eq(to), any())).thenAnswer((invocation) -> {
+            ArrayList<PlannedEvent> plannedEvents = new ArrayList<>();
+            PlannedEvent plannedEvent = new PlannedEvent();
+            plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+            plannedEvent.setDate(LocalDate.of(9000, Month.MAY, 15));
+            plannedEvents.add(plannedEvent);
+            return plannedEvents;
+        });
+
+        PlannedEventPage page = plannedEventService.getPlannedEventsPage(from, to, null, 10);
+
+        assertNotNull(page);
+        assertEquals(1, page.getPlannedEvents().size());
+        assertEquals(PLANNED_EVENT_ID, page.getPlannedEvents().get(0).getPlannedEventId());
+        assertNull(page.getNextCursor());
+    }
+
+    /**
+     * Test getting a page of planned events with a start date after the end date
+     */
+    @Test
+    public void testGetPlannedEventsPageInvalidRange() {
+        PlannedEventPage page = null;
+        String message = null;
+        HttpStatus status = null;
+        try {
+            page = plannedEventService.getPlannedEventsPage(LocalDate.of(9000, Month.MAY, 2),
+                    LocalDate.of(9000, Month.MAY, 1), null, 10);
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+
+        assertNull(page);
+        assertEquals("Start date cannot be after end date", message);
+        assertEquals(HttpStatus.BAD_REQUEST, status);
+    }
+
+    /**
+     * Test getting the upcoming planned events with an invalid number of days
+     */
+    @Test
+    public void testGetUpcomingPlannedEventsInvalidDays() {
+        PlannedEventPage page = null;
+        String message = null;
+        HttpStatus status = null;
+        try {
+            page = plannedEventService.getUpcomingPlannedEvents(0, null, 10);
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+
+        assertNull(page);
+        assertEquals("Days must be between 1 and " + PlannedEventService.MAX_UPCOMING_DAYS, message);
+        assertEquals(HttpStatus.BAD_REQUEST, status);
+    }
+
+    /**
+     * Test updating a planned event based on the version it currently has
+     */
+    @Test
+    public void testUpdatePlannedEventWithVersion() {
+        lenient().when(plannedEventRepository.updateCapacity(PLANNED_EVENT_ID, 50)).thenReturn(1);
+
+        PlannedEvent updatedPlannedEvent = null;
+        try {
+            updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
+                    "NewEventName", "NewDescription", "NewLocation",
+                    LocalDate.of(9000, Month.MAY, 3), 50, 0L);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertNotNull(updatedPlannedEvent);
+        assertEquals("NewEventName", updatedPlannedEvent.getEventName());
+        assertEquals(50, updatedPlannedEvent.getCapacity());
+    }
+
+    /**
+     * Test updating a planned event that was modified since it was read
+     */
+    @Test
+    public void testUpdatePlannedEventStaleVersion() {
+        PlannedEvent updatedPlannedEvent = null;
+        String message = null;
+        HttpStatus status = null;
+        try {
+            updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
+                    "NewEventName", "NewDescription", "NewLocation",
+                    LocalDate.of(9000, Month.MAY, 3), null, 1L);
+            fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            status = e.getStatus();
+        }
+
+        assertNull(updatedPlannedEvent);
+        assertEquals("Planned event was modified by someone else", message);
+        assertEquals(HttpStatus.CONFLICT, status);
+    }
+
+    /**
+     * Test that raising the capacity registers as many waiting general users as there are new seats
+     */
+    @Test
+    public void testUpdatePlannedEventCapacityPromotesWaitlist() {
+        lenient().when(plannedEventRepository.updateCapacity(PLANNED_EVENT_ID, 50)).thenReturn(1);
+        PlannedEvent updatedPlannedEvent = null;
+        try {
+            updatedPlannedEvent = plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID,
+                    "NewEventName", "NewDescription", "NewLocation",
+                    LocalDate.of(9000, Month.MAY, 3), 50, null);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertNotNull(updatedPlannedEvent);
+        verify(registrationService).promoteFromWaitlist(argThat(plannedEvent ->
+                plannedEvent.getPlannedEventId() == PLANNED_EVENT_ID), eq(Limit.of(50)));
+    }
+
+    /**
+     * Test that removing the capacity registers everyone waiting
+     */
+    @Test
+    public void testUpdatePlannedEventUnlimitedCapacityPromotesWaitlist() {
+        lenient().when(plannedEventRepository.updateCapacity(PLANNED_EVENT_ID, null)).thenReturn(1);
+
+        try {
+            plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID, "NewEventName", "NewDescription",
+                    "NewLocation", LocalDate.of(9000, Month.MAY, 3), null, null);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        verify(registrationService).promoteFromWaitlist(any(), eq(Limit.of(PlannedEventService.PROMOTION_CHUNK_SIZE)));
+    }
+
+    /**
+     * Test that a large capacity increase promotes the waitlist a chunk at a time until it runs out of people waiting
+     */
+    @Test
+    public void testUpdatePlannedEventCapacityPromotesWaitlistInChunks() {
+        lenient().when(plannedEventRepository.updateCapacity(PLANNED_EVENT_ID, 1200)).thenReturn(1);
+        lenient().when(registrationService.promoteFromWaitlist(any(), any()))
+                .thenReturn(Collections.nCopies(PlannedEventService.PROMOTION_CHUNK_SIZE, new Registration()))
+                .thenReturn(Collections.nCopies(3, new Registration()));
+
+        try {
+            plannedEventService.updatePlannedEvent(PLANNED_EVENT_ID, "NewEventName", "NewDescription",
+                    "NewLocation", LocalDate.of(9000, Month.MAY, 3), 1200, null);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        verify(registrationService, times(2)).promoteFromWaitlist(any(),
+                eq(Limit.of(PlannedEventService.PROMOTION_CHUNK_SIZE)));
+        verify(registrationService, never()).promoteFromWaitlist(any(), eq(Limit.of(200)));
+    }
 }
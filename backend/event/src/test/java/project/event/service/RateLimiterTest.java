@@ -0,0 +1,111 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.exception.RateLimitExceededException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimiterTest {
+
+    @Spy
+    private Environment environment = new MockEnvironment()
+            .withProperty("event.rate-limit.strict.capacity", "1")
+            .withProperty("event.rate-limit.strict.refill-per-second", "0.5");
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setConfiguration() {
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "defaultCapacity", 3L);
+        ReflectionTestUtils.setField(rateLimiter, "defaultRefillPerSecond", 0.001);
+        ReflectionTestUtils.setField(rateLimiter, "maxClients", 100L);
+        ReflectionTestUtils.setField(rateLimiter, "idleTimeout", Duration.ofMinutes(10));
+        rateLimiter.createCache();
+    }
+
+    /**
+     * Helper method to create a request coming from an address
+     */
+    private MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    /**
+     * Test that a client can make a burst of requests up to the capacity of its bucket, and is rejected after that
+     */
+    @Test
+    public void testAcquireBurst() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire("test", RateLimiter.address(request("10.0.0.1")));
+        }
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.acquire("test", RateLimiter.address(request("10.0.0.1"))));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        assertTrue(e.getRetryAfter().toSeconds() > 0);
+        assertEquals(1, meterRegistry.counter("event.rate-limit.rejected", "endpoint", "test").count());
+    }
+
+    /**
+     * Test that each client and each endpoint has its own bucket
+     */
+    @Test
+    public void testAcquireSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire("test", RateLimiter.address(request("10.0.0.1")));
+        }
+
+        assertDoesNotThrow(() -> rateLimiter.acquire("test", RateLimiter.address(request("10.0.0.2"))));
+        assertDoesNotThrow(() -> rateLimiter.acquire("other", RateLimiter.address(request("10.0.0.1"))));
+    }
+
+    /**
+     * Test that an endpoint with its own configuration uses it instead of the default limit
+     */
+    @Test
+    public void testAcquireEndpointConfiguration() {
+        rateLimiter.acquire("strict", RateLimiter.address(request("10.0.0.1")));
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.acquire("strict", RateLimiter.address(request("10.0.0.1"))));
+
+        // One token every two seconds
+        assertTrue(e.getRetryAfter().compareTo(Duration.ofSeconds(2)) <= 0);
+        assertTrue(e.getRetryAfter().compareTo(Duration.ofSeconds(1)) > 0);
+    }
+
+    /**
+     * Test that nothing is rejected when rate limiting is turned off
+     */
+    @Test
+    public void testAcquireDisabled() {
+        ReflectionTestUtils.setField(rateLimiter, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire("test", RateLimiter.address(request("10.0.0.1")));
+        }
+    }
+}
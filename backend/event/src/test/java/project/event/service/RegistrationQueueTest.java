@@ -0,0 +1,225 @@
+package project.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.event.exception.EventRegistrationAppException;
+import project.event.model.Registration;
+import project.event.model.WaitlistEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class RegistrationQueueTest {
+
+    @Mock
+    private RegistrationService registrationService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RegistrationQueue registrationQueue;
+
+    private static final long PLANNED_EVENT_ID = 1;
+    private static final long GENERAL_USER_ID = 2;
+
+    private final ExecutorService completionExecutor = Executors.newCachedThreadPool(runnable ->
+            new Thread(runnable, "registration-completion"));
+
+    @BeforeEach
+    public void setMockOutput() {
+        ReflectionTestUtils.setField(registrationQueue, "enabled", true);
+        ReflectionTestUtils.setField(registrationQueue, "shardCount", 1);
+        ReflectionTestUtils.setField(registrationQueue, "capacity", 100);
+        ReflectionTestUtils.setField(registrationQueue, "completionExecutor", completionExecutor);
+        lenient().when(registrationService.createRegistrations(anyList(), anyList())).thenAnswer((invocation) -> {
+            List<RegistrationBatchResult> results = new ArrayList<>();
+            for (Object ignored : invocation.getArgument(0, List.class)) {
+                results.add(RegistrationBatchResult.created(new Registration()));
+            }
+            return results;
+        });
+    }
+
+    @AfterEach
+    public void stopWriters() {
+        registrationQueue.stop();
+        completionExecutor.shutdownNow();
+    }
+
+    /**
+     * Test that registrations queued while the writer is busy are applied together in the next batch
+     */
+    @Test
+    public void testSubmitAppliesQueuedRegistrationsInBatches() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().when(registrationService.createRegistrations(List.of(PLANNED_EVENT_ID), List.of(GENERAL_USER_ID)))
+                .thenAnswer((invocation) -> {
+                    writerBusy.countDown();
+                    release.await();
+                    return List.of(RegistrationBatchResult.created(new Registration()));
+                });
+        registrationQueue.start();
+
+        List<CompletableFuture<RegistrationOutcome>> outcomes = new ArrayList<>();
+        outcomes.add(registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        for (long generalUserId = GENERAL_USER_ID + 1; generalUserId <= GENERAL_USER_ID + 3; generalUserId++) {
+            outcomes.add(registrationQueue.submit(PLANNED_EVENT_ID, generalUserId));
+        }
+        release.countDown();
+
+        for (CompletableFuture<RegistrationOutcome> outcome : outcomes) {
+            assertNotNull(outcome.get(5, TimeUnit.SECONDS).getRegistration());
+        }
+        ArgumentCaptor<List<Long>> generalUserIds = ArgumentCaptor.captor();
+        verify(registrationService, times(2)).createRegistrations(anyList(), generalUserIds.capture());
+        assertEquals(List.of(GENERAL_USER_ID + 1, GENERAL_USER_ID + 2, GENERAL_USER_ID + 3),
+                generalUserIds.getAllValues().get(1));
+    }
+
+    /**
+     * Test that a queued registration for a full planned event puts the general user on the waitlist
+     */
+    @Test
+    public void testSubmitFullPlannedEvent() throws Exception {
+        lenient().when(registrationService.createRegistrations(anyList(), anyList()))
+                .thenReturn(List.of(RegistrationBatchResult.failed("Planned event is full", HttpStatus.CONFLICT)));
+        lenient().when(registrationService.createRegistrationOrJoinWaitlist(PLANNED_EVENT_ID, GENERAL_USER_ID))
+                .thenReturn(RegistrationOutcome.waitlisted(new WaitlistEntry(), 1));
+        registrationQueue.start();
+
+        RegistrationOutcome outcome = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID)
+                .get(5, TimeUnit.SECONDS);
+
+        assertNull(outcome.getRegistration());
+        assertNotNull(outcome.getWaitlistEntry());
+        assertEquals(1, outcome.getPosition());
+    }
+
+    /**
+     * Test that a queued registration that cannot be created fails with the error of the batch
+     */
+    @Test
+    public void testSubmitPlannedEventNotFound() throws Exception {
+        lenient().when(registrationService.createRegistrations(anyList(), anyList()))
+                .thenReturn(List.of(RegistrationBatchResult.failed("Planned event not found", HttpStatus.NOT_FOUND)));
+        registrationQueue.start();
+
+        CompletableFuture<RegistrationOutcome> outcome = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> outcome.get(5, TimeUnit.SECONDS));
+        EventRegistrationAppException cause = assertInstanceOf(EventRegistrationAppException.class, e.getCause());
+        assertEquals("Planned event not found", cause.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, cause.getStatus());
+    }
+
+    /**
+     * Test that registrations are turned away once the queue of their shard is full
+     */
+    @Test
+    public void testSubmitQueueFull() throws Exception {
+        ReflectionTestUtils.setField(registrationQueue, "capacity", 1);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().when(registrationService.createRegistrations(anyList(), anyList())).thenAnswer((invocation) -> {
+            writerBusy.countDown();
+            release.await();
+            List<RegistrationBatchResult> results = new ArrayList<>();
+            for (Object ignored : invocation.getArgument(0, List.class)) {
+                results.add(RegistrationBatchResult.created(new Registration()));
+            }
+            return results;
+        });
+        registrationQueue.start();
+
+        CompletableFuture<RegistrationOutcome> applying = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID);
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        CompletableFuture<RegistrationOutcome> queued = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID + 1);
+        CompletableFuture<RegistrationOutcome> rejected = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID + 2);
+        release.countDown();
+
+        assertNotNull(applying.get(5, TimeUnit.SECONDS).getRegistration());
+        assertNotNull(queued.get(5, TimeUnit.SECONDS).getRegistration());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        EventRegistrationAppException cause = assertInstanceOf(EventRegistrationAppException.class, e.getCause());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, cause.getStatus());
+    }
+
+    /**
+     * Test that the futures of queued registrations are completed off the writer thread
+     */
+    @Test
+    public void testSubmitCompletesOffWriter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().when(registrationService.createRegistrations(anyList(), anyList())).thenAnswer((invocation) -> {
+            release.await();
+            return List.of(RegistrationBatchResult.created(new Registration()));
+        });
+        registrationQueue.start();
+
+        CompletableFuture<String> completedOn = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID)
+                .thenApply(outcome -> Thread.currentThread().getName());
+        release.countDown();
+
+        assertEquals("registration-completion", completedOn.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test that registrations are turned away once the queue is stopped
+     */
+    @Test
+    public void testSubmitAfterStop() {
+        registrationQueue.start();
+        registrationQueue.stop();
+
+        CompletableFuture<RegistrationOutcome> outcome = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> outcome.get(5, TimeUnit.SECONDS));
+        EventRegistrationAppException cause = assertInstanceOf(EventRegistrationAppException.class, e.getCause());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, cause.getStatus());
+    }
+
+    /**
+     * Test that an error applying a batch fails its registrations and the writer goes on with the next batch
+     */
+    @Test
+    public void testSubmitErrorKeepsDraining() throws Exception {
+        doThrow(new StackOverflowError()).when(registrationService)
+                .createRegistrations(List.of(PLANNED_EVENT_ID), List.of(GENERAL_USER_ID));
+        registrationQueue.start();
+
+        CompletableFuture<RegistrationOutcome> failed = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        CompletableFuture<RegistrationOutcome> applied = registrationQueue.submit(PLANNED_EVENT_ID, GENERAL_USER_ID + 1);
+
+        assertInstanceOf(StackOverflowError.class, e.getCause());
+        assertNotNull(applied.get(5, TimeUnit.SECONDS).getRegistration());
+    }
+}
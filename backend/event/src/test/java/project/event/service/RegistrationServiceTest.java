@@ -1,28 +1,43 @@
 package project.event.service;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import project.event.dao.EventManagerRepository;
 import project.event.dao.GeneralUserRepository;
 import project.event.dao.PlannedEventRepository;
 import project.event.dao.RegistrationRepository;
+import project.event.dao.WaitlistEntryRepository;
 import project.event.exception.EventRegistrationAppException;
 import project.event.model.EventManager;
+import project.event.model.GeneralUser;
 import project.event.model.PlannedEvent;
 import project.event.model.Registration;
+import project.event.model.WaitlistEntry;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.GregorianCalendar;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class RegistrationServiceTest {
@@ -39,23 +54,35 @@ public class RegistrationServiceTest {
     @Mock
     private PlannedEventRepository plannedEventRepository;
 
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private RegistrationService registrationService;
 
-    private final int REGISTRATION_ID = 1;
-    private final int NONEXISTING_REGISTRATION_ID = 2;
-    private final int PLANNED_EVENT_ID = 3;
-    private final int NONEXISTING_PLANNED_EVENT_ID = 4;
-    private final int GENERAL_USER_ID = 5;
-    private final int NONEXISTING_GENERAL_USER_ID = 6;
+    private final long REGISTRATION_ID = 1;
+    private final long NONEXISTING_REGISTRATION_ID = 2;
+    private final long PLANNED_EVENT_ID = 3;
+    private final long NONEXISTING_PLANNED_EVENT_ID = 4;
+    private final long GENERAL_USER_ID = 5;
+    private final long NONEXISTING_GENERAL_USER_ID = 6;
 
     // Setting up the mock output for the registration repository
     @BeforeEach
     public void setMockOutputRegistration() {
-        lenient().when(registrationRepository.findRegistrationByRegistrationId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(registrationRepository.findRegistrationByRegistrationId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(REGISTRATION_ID)) {
+                PlannedEvent plannedEvent = new PlannedEvent();
+                plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
                 Registration registration = new Registration();
                 registration.setRegistrationId(REGISTRATION_ID);
+                registration.setPlannedEvent(plannedEvent);
                 return registration;
             } else {
                 return null;
@@ -68,7 +95,7 @@ public class RegistrationServiceTest {
             registrations.add(registration);
             return registrations;
         });
-        lenient().when(plannedEventRepository.findPlannedEventByPlannedEventId(anyInt())).thenAnswer((invocation) -> {
+        lenient().when(plannedEventRepository.findPlannedEventByPlannedEventId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(PLANNED_EVENT_ID)) {
                 PlannedEvent plannedEvent = new PlannedEvent();
                 plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
@@ -77,7 +104,9 @@ public class RegistrationServiceTest {
                 return null;
             }
         });
-        lenient().when(generalUserRepository.findGeneralUserByGeneralUserId(anyInt())).thenAnswer((invocation) -> {
+        // Every planned event has seats left unless a test says otherwise
+        lenient().when(plannedEventRepository.reserveSeats(anyLong(), anyInt())).thenReturn(1);
+        lenient().when(generalUserRepository.findGeneralUserByGeneralUserId(anyLong())).thenAnswer((invocation) -> {
             if (invocation.getArgument(0).equals(GENERAL_USER_ID)) {
                 EventManager eventManager = new EventManager();
                 eventManager.setGeneralUserId(GENERAL_USER_ID);
@@ -89,242 +118,556 @@ public class RegistrationServiceTest {
     }
 
     /**
-     * Test for creating a registration using objects
+     * Test for creating a registration with a non-existing planned event
      */
     @Test
-    public void testCreateRegistration() {
+    public void testCreateRegistrationNonExistingPlannedEvent() {
         assertEquals(0, registrationRepository.count());
 
-        EventManager eventManager = new EventManager("manager");
-        PlannedEvent plannedEvent = new PlannedEvent(eventManager, "event",
-                "description", "location", new GregorianCalendar());
-
-        Registration registration = null;
+        RegistrationOutcome outcome = null;
+        String message = null;
+        HttpStatus httpStatus = null;
         try {
-            registration = registrationService.createRegistration(plannedEvent, eventManager);
-        } catch (EventRegistrationAppException e) {
+            outcome = registrationService.createRegistrationOrJoinWaitlist(NONEXISTING_PLANNED_EVENT_ID, GENERAL_USER_ID);
             fail();
+        } catch (EventRegistrationAppException e) {
+            message = e.getMessage();
+            httpStatus = e.getStatus();
         }
-
-        assertNotNull(registration);
-        assertEquals(eventManager.getGeneralUserId(), registration.getGeneralUser().getGeneralUserId());
-        assertEquals(plannedEvent.getPlannedEventId(), registration.getPlannedEvent().getPlannedEventId());
+        assertNull(outcome);
+        assertEquals("Planned event not found", message);
+        assertEquals(HttpStatus.NOT_FOUND, httpStatus);
     }
 
     /**
-     * Test for creating a registration with a null event manager
+     * Test for creating a registration with a non-existing general user
      */
     @Test
-    public void testCreateRegistrationNullEventManager() {
+    public void testCreateRegistrationNonExistingGeneralUser() {
         assertEquals(0, registrationRepository.count());
 
-        EventManager eventManager = new EventManager("manager");
-        PlannedEvent plannedEvent = new PlannedEvent(eventManager, "event",
-                "description", "location", new GregorianCalendar());
-
-        Registration registration = null;
+        RegistrationOutcome outcome = null;
         String message = null;
         HttpStatus httpStatus = null;
         try {
-            registration = registrationService.createRegistration(plannedEvent, null);
+            outcome = registrationService.createRegistrationOrJoinWaitlist(PLANNED_EVENT_ID, NONEXISTING_GENERAL_USER_ID);
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
             httpStatus = e.getStatus();
         }
-        assertNull(registration);
-        assertEquals("General user must be instantiated", message);
-        assertEquals(HttpStatus.BAD_REQUEST, httpStatus);
-
+        assertNull(outcome);
+        assertEquals("General user not found", message);
+        assertEquals(HttpStatus.NOT_FOUND, httpStatus);
     }
 
     /**
-     * Test for creating a registration with a null planned event
+     * Test for deleting a registration
      */
     @Test
-    public void testCreateRegistrationNullPlannedEvent() {
+    public void testDeleteRegistration() {
         assertEquals(0, registrationRepository.count());
 
-        EventManager eventManager = new EventManager("manager");
-        PlannedEvent plannedEvent = new PlannedEvent(eventManager, "event",
-                "description", "location", new GregorianCalendar());
+        boolean result = false;
+        try {
+            result = registrationService.deleteRegistration(REGISTRATION_ID);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
 
-        Registration registration = null;
+        assertTrue(result);
+    }
+
+    /**
+     * Test for deleting a non-existing registration
+     */
+    @Test
+    public void testDeleteNonExistingRegistration() {
+        assertEquals(0, registrationRepository.count());
+
+        boolean result = false;
         String message = null;
         HttpStatus httpStatus = null;
         try {
-            registration = registrationService.createRegistration(null, eventManager);
+            result = registrationService.deleteRegistration(NONEXISTING_REGISTRATION_ID);
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
             httpStatus = e.getStatus();
         }
-        assertNull(registration);
-        assertEquals("Planned event must be instantiated", message);
-        assertEquals(HttpStatus.BAD_REQUEST, httpStatus);
 
+        assertFalse(result);
+        assertEquals("Registration not found", message);
+        assertEquals(HttpStatus.NOT_FOUND, httpStatus);
     }
 
     /**
-     * Test for creating a registration using ids
+     * Test for getting a registration using ids
      */
     @Test
-    public void testCreateRegistrationUsingIds() {
+    public void testGetRegistrationById() {
         assertEquals(0, registrationRepository.count());
 
         Registration registration = null;
         try {
-            registration = registrationService.createRegistration(PLANNED_EVENT_ID, GENERAL_USER_ID);
+            registration = registrationService.getRegistrationById(REGISTRATION_ID);
         } catch (EventRegistrationAppException e) {
             fail();
         }
 
         assertNotNull(registration);
-        assertEquals(GENERAL_USER_ID, registration.getGeneralUser().getGeneralUserId());
-        assertEquals(PLANNED_EVENT_ID, registration.getPlannedEvent().getPlannedEventId());
+        assertEquals(REGISTRATION_ID, registration.getRegistrationId());
     }
 
     /**
-     * Test for creating a registration with a non-existing planned event
+     * Test for getting a non-existing registration
      */
     @Test
-    public void testCreateRegistrationNonExistingPlannedEvent() {
+    public void testGetNonExistingRegistration() {
         assertEquals(0, registrationRepository.count());
 
         Registration registration = null;
         String message = null;
         HttpStatus httpStatus = null;
         try {
-            registration = registrationService.createRegistration(NONEXISTING_PLANNED_EVENT_ID, GENERAL_USER_ID);
+            registration = registrationService.getRegistrationById(NONEXISTING_REGISTRATION_ID);
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
             httpStatus = e.getStatus();
         }
+
         assertNull(registration);
-        assertEquals("Planned event not found", message);
+        assertEquals("Registration not found", message);
         assertEquals(HttpStatus.NOT_FOUND, httpStatus);
     }
 
     /**
-     * Test for creating a registration with a non-existing general user
+     * Test for getting all registrations
      */
     @Test
-    public void testCreateRegistrationNonExistingGeneralUser() {
+    public void testGetAllRegistrations() {
         assertEquals(0, registrationRepository.count());
 
-        Registration registration = null;
+        ArrayList<Registration> registrations = null;
+        try {
+            registrations = registrationService.getAllRegistrations();
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertNotNull(registrations);
+        assertEquals(1, registrations.size());
+    }
+
+    /**
+     * Test for exporting all registrations
+     */
+    @Test
+    public void testExportAllRegistrations() {
+        lenient().when(registrationRepository.streamAll()).thenAnswer((invocation) -> {
+            Registration first = new Registration();
+            first.setRegistrationId(REGISTRATION_ID);
+            Registration second = new Registration();
+            second.setRegistrationId(NONEXISTING_REGISTRATION_ID);
+            return Stream.of(first, second);
+        });
+
+        ArrayList<Registration> exported = new ArrayList<>();
+        try {
+            registrationService.exportAllRegistrations(exported::add);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertEquals(2, exported.size());
+        assertEquals(REGISTRATION_ID, exported.get(0).getRegistrationId());
+        assertEquals(NONEXISTING_REGISTRATION_ID, exported.get(1).getRegistrationId());
+    }
+
+    /**
+     * Test for creating registrations in a batch, where some items fail
+     */
+    @Test
+    public void testCreateRegistrations() {
+        lenient().when(plannedEventRepository.findByPlannedEventIdIn(any())).thenAnswer((invocation) -> {
+            PlannedEvent plannedEvent = new PlannedEvent();
+            plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+            return List.of(plannedEvent);
+        });
+        lenient().when(generalUserRepository.findAllById(any())).thenAnswer((invocation) -> {
+            EventManager eventManager = new EventManager();
+            eventManager.setGeneralUserId(GENERAL_USER_ID);
+            return List.of(eventManager);
+        });
+
+        List<RegistrationBatchResult> results = null;
+        try {
+            results = registrationService.createRegistrations(
+                    Arrays.asList(PLANNED_EVENT_ID, NONEXISTING_PLANNED_EVENT_ID, PLANNED_EVENT_ID, null),
+                    Arrays.asList(GENERAL_USER_ID, GENERAL_USER_ID, NONEXISTING_GENERAL_USER_ID, GENERAL_USER_ID));
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertNotNull(results);
+        assertEquals(4, results.size());
+        assertEquals(HttpStatus.CREATED, results.get(0).getStatus());
+        assertEquals(PLANNED_EVENT_ID, results.get(0).getRegistration().getPlannedEvent().getPlannedEventId());
+        assertEquals(GENERAL_USER_ID, results.get(0).getRegistration().getGeneralUser().getGeneralUserId());
+        assertEquals(HttpStatus.NOT_FOUND, results.get(1).getStatus());
+        assertEquals("Planned event not found", results.get(1).getError());
+        assertEquals(HttpStatus.NOT_FOUND, results.get(2).getStatus());
+        assertEquals("General user not found", results.get(2).getError());
+        assertEquals(HttpStatus.BAD_REQUEST, results.get(3).getStatus());
+        assertEquals("Planned event must be instantiated", results.get(3).getError());
+    }
+
+    /**
+     * Test for creating a batch of registrations that is too large
+     */
+    @Test
+    public void testCreateRegistrationsTooMany() {
+        List<Long> ids = Collections.nCopies(RegistrationService.MAX_BATCH_SIZE + 1, PLANNED_EVENT_ID);
+
+        List<RegistrationBatchResult> results = null;
         String message = null;
         HttpStatus httpStatus = null;
         try {
-            registration = registrationService.createRegistration(PLANNED_EVENT_ID, NONEXISTING_GENERAL_USER_ID);
+            results = registrationService.createRegistrations(ids, ids);
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
             httpStatus = e.getStatus();
         }
-        assertNull(registration);
-        assertEquals("General user not found", message);
-        assertEquals(HttpStatus.NOT_FOUND, httpStatus);
+        assertNull(results);
+        assertEquals("A batch cannot contain more than " + RegistrationService.MAX_BATCH_SIZE + " registrations",
+                message);
+        assertEquals(HttpStatus.BAD_REQUEST, httpStatus);
     }
 
     /**
-     * Test for deleting a registration
+     * Test for creating a batch of registrations for a planned event with only one seat left
      */
     @Test
-    public void testDeleteRegistration() {
-        assertEquals(0, registrationRepository.count());
+    public void testCreateRegistrationsFullPlannedEvent() {
+        lenient().when(plannedEventRepository.findByPlannedEventIdIn(any())).thenAnswer((invocation) -> {
+            PlannedEvent plannedEvent = new PlannedEvent();
+            plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+            return List.of(plannedEvent);
+        });
+        long otherGeneralUserId = GENERAL_USER_ID + 100;
+        lenient().when(generalUserRepository.findAllById(any())).thenAnswer((invocation) -> {
+            EventManager eventManager = new EventManager();
+            eventManager.setGeneralUserId(GENERAL_USER_ID);
+            EventManager otherEventManager = new EventManager();
+            otherEventManager.setGeneralUserId(otherGeneralUserId);
+            return List.of(eventManager, otherEventManager);
+        });
+        lenient().when(plannedEventRepository.reserveSeats(PLANNED_EVENT_ID, 2)).thenReturn(0);
+        lenient().when(plannedEventRepository.findSeatsLeftForUpdate(PLANNED_EVENT_ID)).thenReturn(1);
+        lenient().when(plannedEventRepository.reserveSeats(PLANNED_EVENT_ID, 1)).thenReturn(1);
 
-        boolean result = false;
+        List<RegistrationBatchResult> results = null;
         try {
-            result = registrationService.deleteRegistration(REGISTRATION_ID);
+            results = registrationService.createRegistrations(
+                    Arrays.asList(PLANNED_EVENT_ID, PLANNED_EVENT_ID),
+                    Arrays.asList(GENERAL_USER_ID, otherGeneralUserId));
         } catch (EventRegistrationAppException e) {
             fail();
         }
 
-        assertTrue(result);
+        assertNotNull(results);
+        assertEquals(2, results.size());
+        assertEquals(HttpStatus.CREATED, results.get(0).getStatus());
+        assertEquals(HttpStatus.CONFLICT, results.get(1).getStatus());
+        assertEquals("Planned event is full", results.get(1).getError());
     }
 
     /**
-     * Test for deleting a non-existing registration
+     * Test for creating a batch of registrations for a planned event that people are waiting for
      */
     @Test
-    public void testDeleteNonExistingRegistration() {
-        assertEquals(0, registrationRepository.count());
+    public void testCreateRegistrationsWaitlistNotEmpty() {
+        lenient().when(plannedEventRepository.findByPlannedEventIdIn(any())).thenAnswer((invocation) -> {
+            PlannedEvent plannedEvent = new PlannedEvent();
+            plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+            return List.of(plannedEvent);
+        });
+        lenient().when(generalUserRepository.findAllById(any())).thenAnswer((invocation) -> {
+            EventManager eventManager = new EventManager();
+            eventManager.setGeneralUserId(GENERAL_USER_ID);
+            return List.of(eventManager);
+        });
+        lenient().when(waitlistEntryRepository.existsByPlannedEventPlannedEventId(PLANNED_EVENT_ID)).thenReturn(true);
 
-        boolean result = false;
+        List<RegistrationBatchResult> results = null;
+        try {
+            results = registrationService.createRegistrations(List.of(PLANNED_EVENT_ID), List.of(GENERAL_USER_ID));
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertNotNull(results);
+        assertEquals(HttpStatus.CONFLICT, results.get(0).getStatus());
+        assertEquals("Planned event is full", results.get(0).getError());
+        verify(plannedEventRepository, never()).reserveSeats(anyLong(), anyInt());
+    }
+
+    /**
+     * Test for registering when the planned event has seats left
+     */
+    @Test
+    public void testCreateRegistrationOrJoinWaitlistRegistered() {
+        RegistrationOutcome outcome = null;
+        try {
+            outcome = registrationService.createRegistrationOrJoinWaitlist(PLANNED_EVENT_ID, GENERAL_USER_ID);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertNotNull(outcome);
+        assertNotNull(outcome.getRegistration());
+        assertNull(outcome.getWaitlistEntry());
+        assertEquals(PLANNED_EVENT_ID, outcome.getRegistration().getPlannedEvent().getPlannedEventId());
+    }
+
+    /**
+     * Test for registering when the planned event is full, which puts the general user on the waitlist
+     */
+    @Test
+    public void testCreateRegistrationOrJoinWaitlistWaitlisted() {
+        lenient().when(plannedEventRepository.reserveSeats(anyLong(), anyInt())).thenReturn(0);
+        lenient().when(waitlistEntryRepository.save(any())).thenAnswer((invocation) -> {
+            WaitlistEntry waitlistEntry = invocation.getArgument(0);
+            waitlistEntry.setWaitlistEntryId(7);
+            return waitlistEntry;
+        });
+        // Four general users were promoted before, and two are still waiting ahead
+        lenient().doAnswer((invocation) -> {
+            PlannedEvent plannedEvent = invocation.getArgument(0);
+            plannedEvent.setWaitlistDequeued(4);
+            plannedEvent.setWaitlistCount(3);
+            return null;
+        }).when(entityManager).refresh(any());
+
+        RegistrationOutcome outcome = null;
+        try {
+            outcome = registrationService.createRegistrationOrJoinWaitlist(PLANNED_EVENT_ID, GENERAL_USER_ID);
+        } catch (EventRegistrationAppException e) {
+            fail();
+        }
+
+        assertNotNull(outcome);
+        assertNull(outcome.getRegistration());
+        assertNotNull(outcome.getWaitlistEntry());
+        assertEquals(GENERAL_USER_ID, outcome.getWaitlistEntry().getGeneralUser().getGeneralUserId());
+        assertEquals(7, outcome.getWaitlistEntry().getTicket());
+        assertEquals(3, outcome.getPosition());
+        verify(plannedEventRepository).addWaitlistEntries(PLANNED_EVENT_ID, 1);
+    }
+
+    /**
+     * Test for leaving the middle of a waitlist, which moves everyone behind up by one
+     */
+    @Test
+    public void testDeleteWaitlistEntry() {
+        PlannedEvent plannedEvent = new PlannedEvent();
+        plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+        EventManager waitingUser = new EventManager();
+        waitingUser.setGeneralUserId(GENERAL_USER_ID);
+        WaitlistEntry waitlistEntry = new WaitlistEntry(plannedEvent, waitingUser, 5);
+        lenient().when(waitlistEntryRepository.findWaitlistEntryByWaitlistEntryId(7)).thenReturn(waitlistEntry);
+
+        assertTrue(registrationService.deleteWaitlistEntry(7));
+
+        verify(waitlistEntryRepository).delete(waitlistEntry);
+        verify(waitlistEntryRepository).moveUpBehind(PLANNED_EVENT_ID, 5);
+        verify(plannedEventRepository).addWaitlistEntries(PLANNED_EVENT_ID, -1);
+    }
+
+    /**
+     * Test that the position of a waitlist entry is its ticket past the entries already promoted
+     */
+    @Test
+    public void testGetWaitlistPosition() {
+        PlannedEvent plannedEvent = new PlannedEvent();
+        plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+        plannedEvent.setWaitlistDequeued(1000);
+        WaitlistEntry waitlistEntry = new WaitlistEntry(plannedEvent, new EventManager(), 1002);
+
+        assertEquals(2, registrationService.getWaitlistPosition(waitlistEntry));
+        verifyNoInteractions(waitlistEntryRepository);
+    }
+
+    /**
+     * Test for joining a waitlist the general user is already on
+     */
+    @Test
+    public void testCreateRegistrationOrJoinWaitlistTwice() {
+        lenient().when(waitlistEntryRepository.existsByPlannedEventPlannedEventId(PLANNED_EVENT_ID)).thenReturn(true);
+        lenient().when(waitlistEntryRepository.existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(
+                PLANNED_EVENT_ID, GENERAL_USER_ID)).thenReturn(true);
+
+        RegistrationOutcome outcome = null;
         String message = null;
         HttpStatus httpStatus = null;
         try {
-            result = registrationService.deleteRegistration(NONEXISTING_REGISTRATION_ID);
+            outcome = registrationService.createRegistrationOrJoinWaitlist(PLANNED_EVENT_ID, GENERAL_USER_ID);
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
             httpStatus = e.getStatus();
         }
+        assertNull(outcome);
+        assertEquals("General user is already on the waitlist", message);
+        assertEquals(HttpStatus.BAD_REQUEST, httpStatus);
+    }
 
-        assertFalse(result);
-        assertEquals("Registration not found", message);
-        assertEquals(HttpStatus.NOT_FOUND, httpStatus);
+    /**
+     * Test for deleting a registration, which hands its seat to the head of the waitlist
+     */
+    @Test
+    public void testDeleteRegistrationPromotesWaitlist() {
+        EventManager waitingUser = new EventManager();
+        waitingUser.setGeneralUserId(GENERAL_USER_ID);
+        PlannedEvent plannedEvent = new PlannedEvent();
+        plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+        WaitlistEntry head = new WaitlistEntry(plannedEvent, waitingUser);
+        lenient().when(waitlistEntryRepository.findHeadForUpdate(eq(PLANNED_EVENT_ID), any())).thenReturn(List.of(head));
+        List<Registration> saved = new ArrayList<>();
+        lenient().when(registrationRepository.saveAll(any())).thenAnswer((invocation) -> {
+            List<Registration> registrations = invocation.getArgument(0);
+            saved.addAll(registrations);
+            return registrations;
+        });
+
+        assertTrue(registrationService.deleteRegistration(REGISTRATION_ID));
+
+        verify(waitlistEntryRepository).delete(head);
+        verify(plannedEventRepository).releaseSeats(PLANNED_EVENT_ID, 1);
+        verify(plannedEventRepository).reserveSeats(PLANNED_EVENT_ID, 1);
+        verify(plannedEventRepository).dequeueWaitlistEntries(PLANNED_EVENT_ID, 1);
+        assertEquals(1, saved.size());
+        assertEquals(GENERAL_USER_ID, saved.get(0).getGeneralUser().getGeneralUserId());
+        assertEquals(PLANNED_EVENT_ID, saved.get(0).getPlannedEvent().getPlannedEventId());
     }
 
     /**
-     * Test for getting a registration using ids
+     * Test for joining the waitlist just as a cancellation that could not see the new entry released a seat,
+     * which registers the general user instead of leaving the seat free
      */
     @Test
-    public void testGetRegistrationById() {
-        assertEquals(0, registrationRepository.count());
+    public void testCreateRegistrationOrJoinWaitlistSeatReleasedMeanwhile() {
+        lenient().when(waitlistEntryRepository.existsByPlannedEventPlannedEventId(PLANNED_EVENT_ID)).thenReturn(true);
+        List<WaitlistEntry> saved = new ArrayList<>();
+        lenient().when(waitlistEntryRepository.save(any())).thenAnswer((invocation) -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        lenient().when(waitlistEntryRepository.findHeadForUpdate(eq(PLANNED_EVENT_ID), any())).thenAnswer(
+                (invocation) -> List.copyOf(saved));
 
-        Registration registration = null;
+        RegistrationOutcome outcome = null;
         try {
-            registration = registrationService.getRegistrationById(REGISTRATION_ID);
+            outcome = registrationService.createRegistrationOrJoinWaitlist(PLANNED_EVENT_ID, GENERAL_USER_ID);
         } catch (EventRegistrationAppException e) {
             fail();
         }
 
-        assertNotNull(registration);
-        assertEquals(REGISTRATION_ID, registration.getRegistrationId());
+        assertNotNull(outcome);
+        assertNotNull(outcome.getRegistration());
+        assertNull(outcome.getWaitlistEntry());
+        assertEquals(GENERAL_USER_ID, outcome.getRegistration().getGeneralUser().getGeneralUserId());
+        verify(waitlistEntryRepository).delete(saved.get(0));
+        verify(plannedEventRepository).addWaitlistEntries(PLANNED_EVENT_ID, 1);
+        verify(plannedEventRepository).dequeueWaitlistEntries(PLANNED_EVENT_ID, 1);
     }
 
     /**
-     * Test for getting a non-existing registration
+     * Test for promoting more general users than there are free seats, which stops when the planned event is full
      */
     @Test
-    public void testGetNonExistingRegistration() {
-        assertEquals(0, registrationRepository.count());
+    public void testPromoteFromWaitlistUntilFull() {
+        PlannedEvent plannedEvent = new PlannedEvent();
+        plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+        List<WaitlistEntry> head = new ArrayList<>();
+        for (long generalUserId = 10; generalUserId < 13; generalUserId++) {
+            GeneralUser waitingUser = new GeneralUser();
+            waitingUser.setGeneralUserId(generalUserId);
+            head.add(new WaitlistEntry(plannedEvent, waitingUser));
+        }
+        lenient().when(waitlistEntryRepository.findHeadForUpdate(eq(PLANNED_EVENT_ID), any())).thenReturn(head);
+        lenient().when(plannedEventRepository.reserveSeats(PLANNED_EVENT_ID, 3)).thenReturn(0);
+        lenient().when(plannedEventRepository.findSeatsLeftForUpdate(PLANNED_EVENT_ID)).thenReturn(2);
+        lenient().when(plannedEventRepository.reserveSeats(PLANNED_EVENT_ID, 2)).thenReturn(1);
+
+        List<Registration> registrations = registrationService.promoteFromWaitlist(plannedEvent, Limit.of(3));
+
+        assertEquals(2, registrations.size());
+        assertEquals(10, registrations.get(0).getGeneralUser().getGeneralUserId());
+        assertEquals(11, registrations.get(1).getGeneralUser().getGeneralUserId());
+        verify(waitlistEntryRepository, never()).delete(head.get(2));
+        verify(plannedEventRepository).dequeueWaitlistEntries(PLANNED_EVENT_ID, 2);
+        // The seats left are taken in one update, not one seat at a time
+        verify(plannedEventRepository).reserveSeats(PLANNED_EVENT_ID, 2);
+        verify(plannedEventRepository, never()).reserveSeats(PLANNED_EVENT_ID, 1);
+        assertEquals(2, plannedEvent.getWaitlistDequeued());
+    }
 
-        Registration registration = null;
+    /**
+     * Test for registering a general user for a planned event they are already registered for
+     */
+    @Test
+    public void testCreateRegistrationAlreadyRegistered() {
+        lenient().when(registrationRepository.existsByPlannedEventPlannedEventIdAndGeneralUserGeneralUserId(
+                PLANNED_EVENT_ID, GENERAL_USER_ID)).thenReturn(true);
+
+        RegistrationOutcome outcome = null;
         String message = null;
         HttpStatus httpStatus = null;
         try {
-            registration = registrationService.getRegistrationById(NONEXISTING_REGISTRATION_ID);
+            outcome = registrationService.createRegistrationOrJoinWaitlist(PLANNED_EVENT_ID, GENERAL_USER_ID);
             fail();
         } catch (EventRegistrationAppException e) {
             message = e.getMessage();
             httpStatus = e.getStatus();
         }
-
-        assertNull(registration);
-        assertEquals("Registration not found", message);
-        assertEquals(HttpStatus.NOT_FOUND, httpStatus);
+        assertNull(outcome);
+        assertEquals("General user is already registered for this planned event", message);
+        assertEquals(HttpStatus.BAD_REQUEST, httpStatus);
+        verify(plannedEventRepository, never()).reserveSeats(anyLong(), anyInt());
     }
 
     /**
-     * Test for getting all registrations
+     * Test for creating a batch of registrations that repeats a pair
      */
     @Test
-    public void testGetAllRegistrations() {
-        assertEquals(0, registrationRepository.count());
+    public void testCreateRegistrationsDuplicatePair() {
+        lenient().when(plannedEventRepository.findByPlannedEventIdIn(any())).thenAnswer((invocation) -> {
+            PlannedEvent plannedEvent = new PlannedEvent();
+            plannedEvent.setPlannedEventId(PLANNED_EVENT_ID);
+            return List.of(plannedEvent);
+        });
+        lenient().when(generalUserRepository.findAllById(any())).thenAnswer((invocation) -> {
+            EventManager eventManager = new EventManager();
+            eventManager.setGeneralUserId(GENERAL_USER_ID);
+            return List.of(eventManager);
+        });
 
-        ArrayList<Registration> registrations = null;
+        List<RegistrationBatchResult> results = null;
         try {
-            registrations = registrationService.getAllRegistrations();
+            results = registrationService.createRegistrations(
+                    Arrays.asList(PLANNED_EVENT_ID, PLANNED_EVENT_ID),
+                    Arrays.asList(GENERAL_USER_ID, GENERAL_USER_ID));
         } catch (EventRegistrationAppException e) {
             fail();
         }
 
-        assertNotNull(registrations);
-        assertEquals(1, registrations.size());
+        assertNotNull(results);
+        assertEquals(2, results.size());
+        assertEquals(HttpStatus.CREATED, results.get(0).getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, results.get(1).getStatus());
+        assertEquals("General user is already registered for this planned event", results.get(1).getError());
     }
-
 }
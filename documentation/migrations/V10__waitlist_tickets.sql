@@ -0,0 +1,27 @@
+-- Gives each waitlist entry a ticket, its place in the queue of its planned event, and keeps the number of entries
+-- promoted so far on the planned event. Waiting entries hold the tickets right after that number with no gaps, so a
+-- position is read from the two rows instead of counting the entries ahead.
+-- Existing entries are numbered in their current queue order, which was the order of their ids.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER TABLE planned_event ADD COLUMN waitlist_dequeued BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE waitlist_entry ADD COLUMN ticket BIGINT;
+
+UPDATE waitlist_entry w
+SET ticket = numbered.ticket
+FROM (
+    SELECT waitlist_entry_id,
+           ROW_NUMBER() OVER (PARTITION BY planned_event_id ORDER BY waitlist_entry_id) AS ticket
+    FROM waitlist_entry
+) numbered
+WHERE numbered.waitlist_entry_id = w.waitlist_entry_id;
+
+ALTER TABLE waitlist_entry ALTER COLUMN ticket SET NOT NULL;
+
+DROP INDEX idx_waitlist_entry_queue;
+CREATE INDEX idx_waitlist_entry_queue ON waitlist_entry (planned_event_id, ticket);
+
+COMMIT;
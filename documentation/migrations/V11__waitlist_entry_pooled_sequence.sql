@@ -0,0 +1,13 @@
+-- Makes the waitlist entry sequence hand out blocks of 50 ids like the other sequences, matching the allocationSize
+-- of the @SequenceGenerator on WaitlistEntry.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER SEQUENCE waitlist_entry_seq INCREMENT BY 50;
+
+-- With the pooled-lo optimizer the value returned by the sequence is the first id of a block,
+-- so move the sequence past the highest id already in use
+SELECT setval('waitlist_entry_seq', COALESCE((SELECT MAX(waitlist_entry_id) FROM waitlist_entry), 0) + 1, false);
+
+COMMIT;
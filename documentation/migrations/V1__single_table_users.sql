@@ -0,0 +1,57 @@
+-- Moves event managers from the event_manager table into general_user (single-table inheritance).
+-- Both tables drew their ids from the same sequence, so the ids do not collide.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER TABLE general_user ADD COLUMN user_type VARCHAR(31);
+UPDATE general_user SET user_type = 'GeneralUser';
+
+INSERT INTO general_user (general_user_id, name, user_type)
+SELECT general_user_id, name, 'EventManager' FROM event_manager;
+
+ALTER TABLE general_user ALTER COLUMN user_type SET NOT NULL;
+
+-- Planned events referenced the event_manager table; point them at general_user instead
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT tc.constraint_name
+        FROM information_schema.table_constraints tc
+        JOIN information_schema.constraint_column_usage ccu ON tc.constraint_name = ccu.constraint_name
+        WHERE tc.table_name = 'planned_event' AND tc.constraint_type = 'FOREIGN KEY'
+          AND ccu.table_name = 'event_manager'
+    LOOP
+        EXECUTE 'ALTER TABLE planned_event DROP CONSTRAINT ' || quote_ident(constraint_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE planned_event ADD CONSTRAINT fk_planned_event_event_manager
+    FOREIGN KEY (event_manager_general_user_id) REFERENCES general_user (general_user_id);
+
+-- Registrations could not reference the users before, as they were split over two tables
+ALTER TABLE registration ADD CONSTRAINT fk_registration_general_user
+    FOREIGN KEY (general_user_general_user_id) REFERENCES general_user (general_user_id);
+
+DROP TABLE event_manager;
+
+-- The unique name index now covers general users and event managers together.
+-- This fails if a general user and an event manager share a name; rename one of them first.
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT tc.constraint_name
+        FROM information_schema.table_constraints tc
+        WHERE tc.table_name = 'general_user' AND tc.constraint_type = 'UNIQUE'
+    LOOP
+        EXECUTE 'ALTER TABLE general_user DROP CONSTRAINT ' || quote_ident(constraint_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE general_user ADD CONSTRAINT uk_general_user_name UNIQUE (name);
+
+COMMIT;
@@ -0,0 +1,27 @@
+-- Widens all ids and foreign keys to BIGINT and makes sure every sequence hands out blocks of 50 ids,
+-- matching the allocationSize of the @SequenceGenerator on each entity.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER TABLE general_user ALTER COLUMN general_user_id TYPE BIGINT;
+ALTER TABLE planned_event ALTER COLUMN planned_event_id TYPE BIGINT;
+ALTER TABLE planned_event ALTER COLUMN event_manager_general_user_id TYPE BIGINT;
+ALTER TABLE registration ALTER COLUMN registration_id TYPE BIGINT;
+ALTER TABLE registration ALTER COLUMN planned_event_planned_event_id TYPE BIGINT;
+ALTER TABLE registration ALTER COLUMN general_user_general_user_id TYPE BIGINT;
+
+CREATE SEQUENCE IF NOT EXISTS general_user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS planned_event_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS registration_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE general_user_seq INCREMENT BY 50;
+ALTER SEQUENCE planned_event_seq INCREMENT BY 50;
+ALTER SEQUENCE registration_seq INCREMENT BY 50;
+
+-- With the pooled-lo optimizer the value returned by the sequence is the first id of a block,
+-- so move each sequence past the highest id already in use
+SELECT setval('general_user_seq', COALESCE((SELECT MAX(general_user_id) FROM general_user), 0) + 1, false);
+SELECT setval('planned_event_seq', COALESCE((SELECT MAX(planned_event_id) FROM planned_event), 0) + 1, false);
+SELECT setval('registration_seq', COALESCE((SELECT MAX(registration_id) FROM registration), 0) + 1, false);
+
+COMMIT;
@@ -0,0 +1,11 @@
+-- Stores planned event dates as a plain DATE instead of a TIMESTAMP and adds the (date, id) index
+-- used by the keyset-paginated and date-range queries on PlannedEventRepository.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER TABLE planned_event ALTER COLUMN date TYPE DATE USING date::date;
+
+CREATE INDEX IF NOT EXISTS idx_planned_event_date ON planned_event (date, planned_event_id);
+
+COMMIT;
@@ -0,0 +1,13 @@
+-- Adds the optional capacity of each planned event and the counter of seats already reserved.
+-- The counter starts from the registrations that already exist.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER TABLE planned_event ADD COLUMN capacity INTEGER;
+ALTER TABLE planned_event ADD COLUMN seats_reserved INTEGER NOT NULL DEFAULT 0;
+
+UPDATE planned_event p
+SET seats_reserved = (SELECT COUNT(*) FROM registration r WHERE r.planned_event_planned_event_id = p.planned_event_id);
+
+COMMIT;
@@ -0,0 +1,9 @@
+-- Adds the version columns used for optimistic locking (see @Version) on planned events and registrations.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER TABLE planned_event ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE registration ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
@@ -0,0 +1,18 @@
+-- Adds the per-event waitlists. The (planned_event_id, waitlist_entry_id) index is the queue: the head is read and
+-- locked with FOR UPDATE SKIP LOCKED and positions are counted over it, without reading the rest of the waitlist.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS waitlist_entry_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE waitlist_entry (
+    waitlist_entry_id BIGINT NOT NULL PRIMARY KEY,
+    planned_event_id BIGINT NOT NULL REFERENCES planned_event (planned_event_id),
+    general_user_id BIGINT NOT NULL REFERENCES general_user (general_user_id),
+    CONSTRAINT uk_waitlist_entry_user UNIQUE (planned_event_id, general_user_id)
+);
+
+CREATE INDEX idx_waitlist_entry_queue ON waitlist_entry (planned_event_id, waitlist_entry_id);
+
+COMMIT;
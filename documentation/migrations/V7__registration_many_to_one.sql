@@ -0,0 +1,29 @@
+-- Registrations now link to their planned event and general user as many-to-one instead of one-to-one.
+-- Drops the single-column unique constraints Hibernate generated for the one-to-one links, renames the foreign key
+-- columns, and makes the (planned_event_id, general_user_id) pair unique instead.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+-- Fails on the unique index if the same user is registered twice for the same event, which must be cleaned up first.
+
+BEGIN;
+
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'registration'::regclass AND contype = 'u'
+    LOOP
+        EXECUTE format('ALTER TABLE registration DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE registration RENAME COLUMN planned_event_planned_event_id TO planned_event_id;
+ALTER TABLE registration RENAME COLUMN general_user_general_user_id TO general_user_id;
+ALTER TABLE registration ALTER COLUMN planned_event_id SET NOT NULL;
+ALTER TABLE registration ALTER COLUMN general_user_id SET NOT NULL;
+
+ALTER TABLE registration ADD CONSTRAINT uk_registration_event_user UNIQUE (planned_event_id, general_user_id);
+CREATE INDEX idx_registration_general_user ON registration (general_user_id);
+
+COMMIT;
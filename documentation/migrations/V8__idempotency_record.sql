@@ -0,0 +1,17 @@
+-- Adds the optional table of stored responses for POST requests carrying an Idempotency-Key header.
+-- Only used when event.idempotency.table-enabled is true; expired rows are purged by the application.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+CREATE TABLE idempotency_record (
+    idempotency_key VARCHAR(512) NOT NULL PRIMARY KEY,
+    request_fingerprint VARCHAR(255),
+    status INTEGER NOT NULL,
+    body BYTEA,
+    created_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX idx_idempotency_record_created_at ON idempotency_record (created_at);
+
+COMMIT;
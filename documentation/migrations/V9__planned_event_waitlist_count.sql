@@ -0,0 +1,12 @@
+-- Adds the counter of waitlist entries of each planned event, next to its counter of seats reserved.
+-- The counter starts from the waitlist entries that already exist.
+-- Run once, inside a transaction, before starting the application with the new mapping.
+
+BEGIN;
+
+ALTER TABLE planned_event ADD COLUMN waitlist_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE planned_event p
+SET waitlist_count = (SELECT COUNT(*) FROM waitlist_entry w WHERE w.planned_event_id = p.planned_event_id);
+
+COMMIT;